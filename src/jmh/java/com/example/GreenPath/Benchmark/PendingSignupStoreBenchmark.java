@@ -0,0 +1,89 @@
+package com.example.GreenPath.Benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.GreenPath.DTO.PendingSignup;
+import com.example.GreenPath.Model.UserType;
+import com.example.GreenPath.Service.InMemoryPendingSignupStore;
+
+/**
+ * The in-memory pending signup store under the signup / verify access pattern, single-threaded
+ * and with several request threads contending for its lock.
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="PendingSignupStoreBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PendingSignupStoreBenchmark {
+
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    // Entries already held when the measurement starts
+    @Param({"1000", "10000"})
+    private int size;
+
+    private InMemoryPendingSignupStore store;
+    private PendingSignup[] signups;
+
+    @Setup
+    public void setUp() {
+        store = new InMemoryPendingSignupStore(size * 2);
+        signups = new PendingSignup[size];
+        long expiresAt = System.currentTimeMillis() + TTL_MILLIS;
+        for (int i = 0; i < size; i++) {
+            signups[i] = new PendingSignup("user" + i + "@example.com", "First", "Last", "0712345678",
+                    "{bcrypt}$2a$10$abcdefghijklmnopqrstuv", i % 2 == 0 ? UserType.FARMER : UserType.HERDER,
+                    "123456", expiresAt);
+            store.put(signups[i]);
+        }
+    }
+
+    private PendingSignup randomSignup() {
+        return signups[ThreadLocalRandom.current().nextInt(signups.length)];
+    }
+
+    @Benchmark
+    public boolean find() {
+        return store.find(randomSignup().email()).isPresent();
+    }
+
+    // Signup followed by the verify lookup and removal; leaves the store size unchanged
+    @Benchmark
+    public boolean putFindRemove() {
+        PendingSignup signup = randomSignup();
+        store.put(signup);
+        boolean found = store.find(signup.email()).isPresent();
+        store.remove(signup.email());
+        store.put(signup);
+        return found;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean putFindRemoveContended() {
+        return putFindRemove();
+    }
+
+    @Benchmark
+    public boolean updateCode() {
+        return store.updateCode(randomSignup().email(), "654321");
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.GreenPath.Benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Model.UserType;
+import com.example.GreenPath.Security.SecurityConfig;
+
+/**
+ * Role resolution and redirect in CustomAuthenticationSuccessHandler after a form login, with
+ * and without the role chosen on the login form. Each invocation builds a fresh mock request
+ * and response, so a new session is created as it is for a real login.
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="RoleRedirectBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleRedirectBenchmark {
+
+    // Empty means no role parameter on the login form
+    @Param({"FARMER", "HERDER", ""})
+    private String chosenRole;
+
+    private SecurityConfig.CustomAuthenticationSuccessHandler handler;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        handler = new SecurityConfig.CustomAuthenticationSuccessHandler();
+        User farmer = User.builder()
+                .id(42L)
+                .email("amina@example.com")
+                .password("{bcrypt}$2a$10$abcdefghijklmnopqrstuv")
+                .userType(UserType.FARMER)
+                .build();
+        authentication = UsernamePasswordAuthenticationToken.authenticated(farmer, null, farmer.getAuthorities());
+    }
+
+    @Benchmark
+    public String onAuthenticationSuccess() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/perform-login");
+        if (!chosenRole.isEmpty()) {
+            request.setParameter("role", chosenRole);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.onAuthenticationSuccess(request, response, authentication);
+        return response.getRedirectedUrl();
+    }
+}
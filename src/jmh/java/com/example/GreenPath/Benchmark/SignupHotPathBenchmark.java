@@ -0,0 +1,96 @@
+package com.example.GreenPath.Benchmark;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.GreenPath.Logging.LogMasking;
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Model.UserType;
+import com.example.GreenPath.Security.ClientAddress;
+import com.example.GreenPath.Service.EmailTemplateService;
+import com.example.GreenPath.Service.VerificationCodes;
+
+/**
+ * Per-request work on the signup and login paths that doesn't touch the database or SMTP.
+ *
+ * mvn -P benchmarks test-compile exec:exec -Djmh.args="SignupHotPathBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignupHotPathBenchmark {
+
+    private EmailTemplateService emailTemplateService;
+    private MockHttpServletRequest request;
+    private User farmer;
+
+    @Setup
+    public void setUp() {
+        // Same steps Spring runs: inject the expiry and compile the templates once
+        emailTemplateService = new EmailTemplateService();
+        ReflectionTestUtils.setField(emailTemplateService, "expiryMinutes", 15);
+        ReflectionTestUtils.invokeMethod(emailTemplateService, "compileTemplates");
+
+        request = new MockHttpServletRequest("POST", "/user/signup");
+        request.setRemoteAddr("198.51.100.23");
+
+        farmer = User.builder()
+                .id(42L)
+                .email("amina@example.com")
+                .userType(UserType.FARMER)
+                .build();
+    }
+
+    @Benchmark
+    public String generateVerificationCode() {
+        return VerificationCodes.generate();
+    }
+
+    @Benchmark
+    public String verificationEmailHtml() {
+        return emailTemplateService.verificationHtml("482913");
+    }
+
+    @Benchmark
+    public String verificationEmailText() {
+        return emailTemplateService.verificationText("482913");
+    }
+
+    @Benchmark
+    public String clientAddress() {
+        return ClientAddress.of(request);
+    }
+
+    // Called by Spring Security on every authenticated request that checks a role
+    @Benchmark
+    public Collection<? extends GrantedAuthority> userAuthorities() {
+        return farmer.getAuthorities();
+    }
+
+    @Benchmark
+    public String maskPhone() {
+        return LogMasking.phone("+254 712 345 678");
+    }
+
+    @Benchmark
+    public String maskEmail() {
+        return LogMasking.email("amina.wanjiru@example.com");
+    }
+}
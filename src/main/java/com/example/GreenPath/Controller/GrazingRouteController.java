@@ -0,0 +1,42 @@
+package com.example.GreenPath.Controller;
+
+import java.security.Principal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Controller;
+
+import com.example.GreenPath.DTO.PositionUpdate;
+import com.example.GreenPath.Model.UserType;
+import com.example.GreenPath.Security.AuthenticatedUsers;
+import com.example.GreenPath.Service.GeoMath;
+import com.example.GreenPath.Service.GrazingAlertService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * STOMP endpoints for live grazing routes (see WebSocketConfig for the destinations).
+ */
+@Controller
+@Slf4j
+public class GrazingRouteController {
+
+    @Autowired
+    private GrazingAlertService grazingAlertService;
+
+    @MessageMapping("/herders/position")
+    public void publishPosition(@Payload PositionUpdate update, Principal principal) {
+        Long herderId = AuthenticatedUsers.userId(principal);
+        if (herderId == null || !AuthenticatedUsers.hasRole(principal, UserType.HERDER)) {
+            throw new AccessDeniedException("Only herders can publish positions");
+        }
+        if (update == null || !GeoMath.isValid(update.latitude(), update.longitude())) {
+            log.debug("Ignoring invalid position from herder {}", herderId);
+            return;
+        }
+        
+        grazingAlertService.publishPosition(herderId, update.latitude(), update.longitude());
+    }
+}
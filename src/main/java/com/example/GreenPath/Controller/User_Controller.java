@@ -1,14 +1,13 @@
 package com.example.GreenPath.Controller;
 
-import java.time.LocalDateTime;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Random;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -17,12 +16,26 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.example.GreenPath.DTO.ConflictZoneReport;
+import com.example.GreenPath.DTO.JobRun;
+import com.example.GreenPath.DTO.PendingSignup;
+import com.example.GreenPath.DTO.SessionUser;
+import com.example.GreenPath.Job.CleanupJobs;
+import com.example.GreenPath.Job.JobScheduler;
+import com.example.GreenPath.Logging.LogMasking;
 import com.example.GreenPath.Model.User;
 import com.example.GreenPath.Model.UserType;
-import com.example.GreenPath.Service.EmailService;
+import com.example.GreenPath.Security.ClientAddress;
+import com.example.GreenPath.Security.PasswordHashingBusyException;
+import com.example.GreenPath.Security.RateLimitDecision;
+import com.example.GreenPath.Security.SignupRateLimiter;
+import com.example.GreenPath.Service.AuthMetrics;
+import com.example.GreenPath.Service.ConflictMatchingService;
+import com.example.GreenPath.Service.MailDispatchService;
+import com.example.GreenPath.Service.PendingSignupStore;
+import com.example.GreenPath.Service.VerificationCodes;
 import com.example.GreenPath.Service.userService;
 
-import jakarta.mail.MessagingException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import lombok.extern.slf4j.Slf4j;
@@ -32,39 +45,40 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class User_Controller {
 
+    // Normalized email of the signup started in this session; the only address whose delivery status it may read
+    private static final String SIGNUP_EMAIL_ATTRIBUTE = "pendingSignupEmail";
 
     @Autowired
     private userService userService;
     
     @Autowired
-    private EmailService emailService;
+    private MailDispatchService mailDispatchService;
+    
+    @Autowired
+    private PendingSignupStore pendingSignupStore;
+    
+    @Autowired
+    private ConflictMatchingService conflictMatchingService;
+    
+    @Autowired
+    private SignupRateLimiter signupRateLimiter;
+    
+    @Autowired
+    private JobScheduler jobScheduler;
+    
+    @Autowired
+    private AuthMetrics authMetrics;
     
     // Configuration values from YAML
     @Value("${app.cleanup.pending-user-expiry-minutes:15}")
     private int pendingUserExpiryMinutes;
     
-    @Value("${app.cleanup.enable-detailed-logging:false}")
-    private boolean enableDetailedLogging;
+    @Value("${app.matching.default-buffer-km:5}")
+    private double defaultConflictBufferKm;
     
-    // Store temporary user data and verification codes
-    private final Map<String, PendingUser> pendingUsers = new ConcurrentHashMap<>();
-    private final Map<String, String> verificationCodes = new ConcurrentHashMap<>();
+    @Value("${app.signup.dedup-window-ms:120000}")
+    private long signupDedupWindowMs;
     
-    // Inner class to store pending user data
-    private class PendingUser {
-        User user;
-        LocalDateTime expiryTime;
-        
-        PendingUser(User user) {
-            this.user = user;
-            this.expiryTime = LocalDateTime.now().plusMinutes(pendingUserExpiryMinutes);
-        }
-        
-        boolean isExpired() {
-            return LocalDateTime.now().isAfter(expiryTime);
-        }
-    }
-
     @PostMapping("/signup")
     public ResponseEntity<?> processSignup(@RequestParam("firstName") String firstName,
                                          @RequestParam("lastName") String lastName,
@@ -75,119 +89,121 @@ public class User_Controller {
                                          HttpServletRequest request) {
         
         String clientIp = getClientIpAddress(request);
-        String sessionId = request.getSession().getId();
-        
-        log.info("=== SIGNUP REQUEST START ===");
-        log.info("Session ID: {}", sessionId);
-        log.info("Client IP: {}", clientIp);
-        log.info("Email: {}", email);
-        log.info("Role: {}", role);
-        log.info("Phone: {}", phone != null ? phone.replaceAll("\\d(?=\\d{4})", "*") : "null");
-        log.debug("Full request parameters - firstName: {}, lastName: {}, email: {}, phone: {}, role: {}", 
-                 firstName, lastName, email, phone, role);
+        // One summary event per request, written when the observation stops
+        AuthMetrics.Observation observation = authMetrics.start(AuthMetrics.Operation.SIGNUP)
+            .field("email", LogMasking.email(email))
+            .field("phone", LogMasking.phone(phone))
+            .field("ip", clientIp)
+            .field("session", sessionId(request));
         
-        long startTime = System.currentTimeMillis();
+        RateLimitDecision rateLimit = signupRateLimiter.tryAcquire(email, clientIp);
+        if (!rateLimit.allowed()) {
+            observation.rejected("rate_limited");
+            return createRateLimitedResponse(rateLimit);
+        }
         
         try {
             // Validate input parameters
-            log.debug("Validating input parameters...");
             if (firstName == null || firstName.trim().isEmpty()) {
-                log.warn("Signup failed - First name is empty. Email: {}, IP: {}", email, clientIp);
+                observation.rejected("missing_field");
                 return createErrorResponse("First name is required");
             }
             if (lastName == null || lastName.trim().isEmpty()) {
-                log.warn("Signup failed - Last name is empty. Email: {}, IP: {}", email, clientIp);
+                observation.rejected("missing_field");
                 return createErrorResponse("Last name is required");
             }
             if (email == null || email.trim().isEmpty()) {
-                log.warn("Signup failed - Email is empty. IP: {}", clientIp);
+                observation.rejected("missing_field");
                 return createErrorResponse("Email is required");
             }
             if (password == null || password.trim().isEmpty()) {
-                log.warn("Signup failed - Password is empty. Email: {}, IP: {}", email, clientIp);
+                observation.rejected("missing_field");
                 return createErrorResponse("Password is required");
             }
             if (role == null || role.trim().isEmpty()) {
-                log.warn("Signup failed - Role is empty. Email: {}, IP: {}", email, clientIp);
+                observation.rejected("missing_field");
                 return createErrorResponse("Role is required");
             }
             
-            log.debug("Input validation passed for email: {}", email);
-            
             // Convert string role to UserType enum
-            log.debug("Converting role '{}' to UserType enum", role);
             UserType userType;
             try {
                 userType = UserType.valueOf(role.toUpperCase());
-                log.debug("Role conversion successful: {}", userType);
             } catch (IllegalArgumentException e) {
-                log.warn("Signup failed - Invalid role '{}' provided. Email: {}, IP: {}", role, email, clientIp);
+                observation.rejected("invalid_role");
                 return createErrorResponse("Invalid role selected");
             }
+            observation.userType(userType);
             
             // Check if user already exists
-            log.debug("Checking if user already exists with email: {}", email);
-            User existingUser = userService.findByEmail(email);
-            if (existingUser != null) {
-                log.warn("Signup failed - User already exists. Email: {}, IP: {}", email, clientIp);
+            if (userService.emailExists(email.trim().toLowerCase())) {
+                observation.rejected("email_exists");
                 return createErrorResponse("User with this email already exists");
             }
-            log.debug("User does not exist, proceeding with registration");
-            
-            // Create new user object
-            log.debug("Creating new user object for email: {}", email);
-            User newUser = User.builder()
-                .firstName(firstName.trim())
-                .lastName(lastName.trim())
-                .email(email.trim().toLowerCase())
-                .phoneNumber(phone)
-                .password(password) // Will be encoded in the service
-                .userType(userType)
-                .enabled(true)
-                .verified(false)
-                .build();
-            
-            log.debug("User object created successfully");
-            
-            // Generate verification code
-            String verificationCode = generateVerificationCode();
-            log.debug("Generated verification code for email: {}", email);
             
-            // Store user temporarily
+            // A repeat signup shortly after the first leaves the stored registration untouched: its
+            // details can't be replaced while the emailed code stays valid, or anyone could swap in
+            // their own password for someone else's pending email
             String normalizedEmail = email.trim().toLowerCase();
-            pendingUsers.put(normalizedEmail, new PendingUser(newUser));
-            verificationCodes.put(normalizedEmail, verificationCode);
+            long now = System.currentTimeMillis();
+            Optional<PendingSignup> recent = pendingSignupStore.find(normalizedEmail)
+                .filter(existing -> !existing.isExpiredAt(now))
+                .filter(existing -> existing.expiresAtMillis() - pendingUserExpiryMinutes * 60_000L + signupDedupWindowMs > now);
             
-            log.info("User data stored temporarily. Pending users count: {}, Verification codes count: {}", 
-                    pendingUsers.size(), verificationCodes.size());
-            
-            // Send verification email
-            log.debug("Attempting to send verification email to: {}", email);
-            emailService.sendVerificationEmail(email, verificationCode);
-            log.info("Verification email sent successfully to: {}", email);
+            String verificationCode;
+            if (recent.isPresent()) {
+                observation.field("deduplicated", "true");
+                if (verificationEmailDelivered(normalizedEmail)) {
+                    observation.success();
+                    return ResponseEntity.ok(Map.of(
+                        "success", true,
+                        "message", "Verification code is being sent to your email",
+                        "email", email
+                    ));
+                }
+                // The first email never arrived; send the stored code again
+                verificationCode = recent.get().verificationCode();
+            } else {
+                verificationCode = generateVerificationCode();
+                
+                // Store the pending registration until the code is verified
+                PendingSignup pendingSignup = new PendingSignup(
+                    normalizedEmail,
+                    firstName.trim(),
+                    lastName.trim(),
+                    phone,
+                    userService.encodePassword(password),
+                    userType,
+                    verificationCode,
+                    now + pendingUserExpiryMinutes * 60_000L
+                );
+                pendingSignupStore.put(pendingSignup);
+                request.getSession().setAttribute(SIGNUP_EMAIL_ATTRIBUTE, normalizedEmail);
+            }
             
-            long processingTime = System.currentTimeMillis() - startTime;
-            log.info("=== SIGNUP REQUEST SUCCESS === Email: {}, Processing time: {}ms, IP: {}", 
-                    email, processingTime, clientIp);
+            // Queue verification email; delivery happens off the request thread
+            if (!mailDispatchService.enqueueVerificationEmail(email, verificationCode)) {
+                observation.failed("mail_queue_full");
+                return createBusyResponse();
+            }
             
+            observation.success();
             return ResponseEntity.ok(Map.of(
                 "success", true,
-                "message", "Verification code sent to your email",
+                "message", "Verification code is being sent to your email",
                 "email", email
             ));
             
-        } catch (MessagingException e) {
-            long processingTime = System.currentTimeMillis() - startTime;
-            log.error("=== SIGNUP REQUEST FAILED === Email service error for: {}, Processing time: {}ms, IP: {}", 
-                     email, processingTime, clientIp, e);
-            return ResponseEntity.internalServerError().body(Map.of(
-                "success", false,
-                "message", "Failed to send verification email. Please try again."
-            ));
+        } catch (PasswordHashingBusyException e) {
+            observation.failed("hashing_busy");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "5")
+                .body(Map.of(
+                    "success", false,
+                    "message", "The server is busy. Please try again shortly."
+                ));
         } catch (Exception e) {
-            long processingTime = System.currentTimeMillis() - startTime;
-            log.error("=== SIGNUP REQUEST FAILED === Unexpected error for: {}, Processing time: {}ms, IP: {}", 
-                     email, processingTime, clientIp, e);
+            observation.failed("unexpected", e);
             return ResponseEntity.internalServerError().body(Map.of(
                 "success", false,
                 "message", "Registration failed: " + e.getMessage()
@@ -199,20 +215,13 @@ public class User_Controller {
     public ResponseEntity<?> verifyCode(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
         String email = request.get("email");
         String code = request.get("code");
-        String clientIp = getClientIpAddress(httpRequest);
-        String sessionId = httpRequest.getSession().getId();
-        
-        log.info("=== CODE VERIFICATION START ===");
-        log.info("Session ID: {}", sessionId);
-        log.info("Client IP: {}", clientIp);
-        log.info("Email: {}", email);
-        log.debug("Verification code received: {}", code);
-        
-        long startTime = System.currentTimeMillis();
+        AuthMetrics.Observation observation = authMetrics.start(AuthMetrics.Operation.VERIFY)
+            .field("email", LogMasking.email(email))
+            .field("ip", getClientIpAddress(httpRequest))
+            .field("session", sessionId(httpRequest));
         
         if (email == null || code == null) {
-            log.warn("Code verification failed - Missing parameters. Email: {}, Code provided: {}, IP: {}", 
-                    email, code != null, clientIp);
+            observation.rejected("missing_field");
             return createErrorResponse("Email and code are required");
         }
         
@@ -220,51 +229,38 @@ public class User_Controller {
             String normalizedEmail = email.trim().toLowerCase();
             
             // Check if pending user exists
-            log.debug("Checking for pending user with email: {}", normalizedEmail);
-            PendingUser pendingUser = pendingUsers.get(normalizedEmail);
-            if (pendingUser == null) {
-                log.warn("Code verification failed - No pending registration found. Email: {}, IP: {}", 
-                        email, clientIp);
+            Optional<PendingSignup> pending = pendingSignupStore.find(normalizedEmail);
+            if (pending.isEmpty()) {
+                observation.rejected("no_pending_signup");
                 return createErrorResponse("No pending registration found for this email");
             }
-            log.debug("Pending user found for email: {}", normalizedEmail);
+            PendingSignup pendingSignup = pending.get();
+            observation.userType(pendingSignup.userType());
             
             // Check if registration has expired
-            if (pendingUser.isExpired()) {
-                log.warn("Code verification failed - Registration expired. Email: {}, Expiry: {}, IP: {}", 
-                        email, pendingUser.expiryTime, clientIp);
-                pendingUsers.remove(normalizedEmail);
-                verificationCodes.remove(normalizedEmail);
+            if (pendingSignup.isExpired()) {
+                pendingSignupStore.remove(normalizedEmail);
+                observation.rejected("expired");
                 return createErrorResponse("Registration session has expired. Please register again.");
             }
-            log.debug("Registration session is still valid for email: {}", normalizedEmail);
             
             // Check verification code
-            String storedCode = verificationCodes.get(normalizedEmail);
-            if (storedCode == null || !storedCode.equals(code)) {
-                log.warn("Code verification failed - Invalid code. Email: {}, Expected exists: {}, IP: {}", 
-                        email, storedCode != null, clientIp);
+            if (!pendingSignup.codeMatches(code)) {
+                observation.rejected("invalid_code");
                 return createErrorResponse("Invalid verification code");
             }
-            log.debug("Verification code validated successfully for email: {}", normalizedEmail);
             
             // Save user to database
-            User userToSave = pendingUser.user;
-            userToSave.setVerified(true);
-            
-            log.debug("Attempting to save user to database: {}", normalizedEmail);
-            User savedUser = userService.saveUser(userToSave);
+            User savedUser = userService.registerPendingSignup(pendingSignup);
             
             if (savedUser != null) {
                 // Clean up temporary storage
-                pendingUsers.remove(normalizedEmail);
-                verificationCodes.remove(normalizedEmail);
-                
-                long processingTime = System.currentTimeMillis() - startTime;
-                log.info("=== CODE VERIFICATION SUCCESS === Email: {}, User ID: {}, Processing time: {}ms, IP: {}", 
-                        email, savedUser.getId(), processingTime, clientIp);
-                log.info("Cleanup completed. Remaining - Pending users: {}, Verification codes: {}", 
-                        pendingUsers.size(), verificationCodes.size());
+                pendingSignupStore.remove(normalizedEmail);
+                HttpSession session = httpRequest.getSession(false);
+                if (session != null) {
+                    session.removeAttribute(SIGNUP_EMAIL_ATTRIBUTE);
+                }
+                observation.field("userId", String.valueOf(savedUser.getId())).success();
                 
                 return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -272,8 +268,7 @@ public class User_Controller {
                     "redirectUrl", "/login"
                 ));
             } else {
-                log.error("Code verification failed - User save returned null. Email: {}, IP: {}", 
-                         email, clientIp);
+                observation.failed("save_failed");
                 return ResponseEntity.internalServerError().body(Map.of(
                     "success", false,
                     "message", "Failed to save user. Please try again."
@@ -281,9 +276,7 @@ public class User_Controller {
             }
             
         } catch (Exception e) {
-            long processingTime = System.currentTimeMillis() - startTime;
-            log.error("=== CODE VERIFICATION FAILED === Unexpected error. Email: {}, Processing time: {}ms, IP: {}", 
-                     email, processingTime, clientIp, e);
+            observation.failed("unexpected", e);
             return ResponseEntity.internalServerError().body(Map.of(
                 "success", false,
                 "message", "Verification failed: " + e.getMessage()
@@ -295,59 +288,70 @@ public class User_Controller {
     public ResponseEntity<?> resendVerificationCode(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
         String email = request.get("email");
         String clientIp = getClientIpAddress(httpRequest);
-        String sessionId = httpRequest.getSession().getId();
-        
-        log.info("=== RESEND CODE REQUEST ===");
-        log.info("Session ID: {}", sessionId);
-        log.info("Client IP: {}", clientIp);
-        log.info("Email: {}", email);
+        AuthMetrics.Observation observation = authMetrics.start(AuthMetrics.Operation.RESEND)
+            .field("email", LogMasking.email(email))
+            .field("ip", clientIp)
+            .field("session", sessionId(httpRequest));
         
         if (email == null) {
-            log.warn("Resend code failed - Email is required. IP: {}", clientIp);
+            observation.rejected("missing_field");
             return createErrorResponse("Email is required");
         }
         
+        RateLimitDecision rateLimit = signupRateLimiter.tryAcquire(email, clientIp);
+        if (!rateLimit.allowed()) {
+            observation.rejected("rate_limited");
+            return createRateLimitedResponse(rateLimit);
+        }
+        
         try {
             String normalizedEmail = email.trim().toLowerCase();
             
             // Check if pending user exists
-            PendingUser pendingUser = pendingUsers.get(normalizedEmail);
-            if (pendingUser == null) {
-                log.warn("Resend code failed - No pending registration found. Email: {}, IP: {}", 
-                        email, clientIp);
+            Optional<PendingSignup> pending = pendingSignupStore.find(normalizedEmail);
+            if (pending.isEmpty()) {
+                observation.rejected("no_pending_signup");
                 return createErrorResponse("No pending registration found for this email");
             }
+            observation.userType(pending.get().userType());
             
             // Check if registration has expired
-            if (pendingUser.isExpired()) {
-                log.warn("Resend code failed - Registration expired. Email: {}, IP: {}", email, clientIp);
-                pendingUsers.remove(normalizedEmail);
-                verificationCodes.remove(normalizedEmail);
+            if (pending.get().isExpired()) {
+                pendingSignupStore.remove(normalizedEmail);
+                observation.rejected("expired");
                 return createErrorResponse("Registration session has expired. Please register again.");
             }
             
+            // The previous email is still on its way; don't replace its code with another one
+            if (verificationEmailInFlight(normalizedEmail)) {
+                observation.field("deduplicated", "true").success();
+                return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Verification code is being sent to your email"
+                ));
+            }
+            
             // Generate new verification code
             String newVerificationCode = generateVerificationCode();
-            verificationCodes.put(normalizedEmail, newVerificationCode);
-            log.debug("New verification code generated for email: {}", email);
+            if (!pendingSignupStore.updateCode(normalizedEmail, newVerificationCode)) {
+                observation.rejected("no_pending_signup");
+                return createErrorResponse("No pending registration found for this email");
+            }
             
-            // Send new verification email
-            emailService.sendVerificationEmail(email, newVerificationCode);
-            log.info("New verification code sent successfully to: {}, IP: {}", email, clientIp);
+            // Queue new verification email
+            if (!mailDispatchService.enqueueVerificationEmail(email, newVerificationCode)) {
+                observation.failed("mail_queue_full");
+                return createBusyResponse();
+            }
             
+            observation.success();
             return ResponseEntity.ok(Map.of(
                 "success", true,
-                "message", "New verification code sent to your email"
+                "message", "New verification code is being sent to your email"
             ));
             
-        } catch (MessagingException e) {
-            log.error("Resend code failed - Email service error. Email: {}, IP: {}", email, clientIp, e);
-            return ResponseEntity.internalServerError().body(Map.of(
-                "success", false,
-                "message", "Failed to send verification email. Please try again."
-            ));
         } catch (Exception e) {
-            log.error("Resend code failed - Unexpected error. Email: {}, IP: {}", email, clientIp, e);
+            observation.failed("unexpected", e);
             return ResponseEntity.internalServerError().body(Map.of(
                 "success", false,
                 "message", "Failed to resend code: " + e.getMessage()
@@ -355,6 +359,28 @@ public class User_Controller {
         }
     }
     
+    @GetMapping("/verification-status")
+    public ResponseEntity<?> verificationEmailStatus(@RequestParam(value = "email", required = false) String email,
+                                                     HttpServletRequest request) {
+        // Only the session that started the signup may see its delivery status, so this can't
+        // be used to probe which addresses have a pending registration
+        HttpSession session = request.getSession(false);
+        String signupEmail = session != null ? (String) session.getAttribute(SIGNUP_EMAIL_ATTRIBUTE) : null;
+        if (signupEmail == null || (email != null && !signupEmail.equals(email.trim().toLowerCase()))) {
+            return createErrorResponse("No verification email found for this address");
+        }
+        
+        MailDispatchService.DispatchStatus status = mailDispatchService.getStatus(signupEmail);
+        if (status == null) {
+            return createErrorResponse("No verification email found for this address");
+        }
+        
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "status", status.name()
+        ));
+    }
+    
     @PostMapping("/cancel-registration")
     public ResponseEntity<?> cancelRegistration(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
         String email = request.get("email");
@@ -371,13 +397,10 @@ public class User_Controller {
         String normalizedEmail = email.trim().toLowerCase();
         
         // Clean up temporary storage
-        boolean userRemoved = pendingUsers.remove(normalizedEmail) != null;
-        boolean codeRemoved = verificationCodes.remove(normalizedEmail) != null;
+        boolean userRemoved = pendingSignupStore.remove(normalizedEmail).isPresent();
         
-        log.info("Registration cancelled successfully. Email: {}, User removed: {}, Code removed: {}, IP: {}", 
-                email, userRemoved, codeRemoved, clientIp);
-        log.debug("Remaining - Pending users: {}, Verification codes: {}", 
-                 pendingUsers.size(), verificationCodes.size());
+        log.info("Registration cancelled successfully. Email: {}, User removed: {}, IP: {}", 
+                email, userRemoved, clientIp);
         
         return ResponseEntity.ok(Map.of(
             "success", true,
@@ -391,11 +414,11 @@ public class User_Controller {
                                RedirectAttributes redirectAttributes,
                                HttpServletRequest httpRequest) {
         String clientIp = getClientIpAddress(httpRequest);
-        User loggedInUser = (User) session.getAttribute("loggedInUser");
+        SessionUser loggedInUser = (SessionUser) session.getAttribute(SessionUser.ATTRIBUTE);
         
         log.info("=== PROFILE UPDATE REQUEST ===");
         log.info("Session ID: {}, IP: {}", session.getId(), clientIp);
-        log.info("Logged in user: {}", loggedInUser != null ? loggedInUser.getEmail() : "null");
+        log.info("Logged in user: {}", loggedInUser != null ? loggedInUser.email() : "null");
         
         if (loggedInUser == null) {
             log.warn("Profile update failed - User not logged in. IP: {}", clientIp);
@@ -403,136 +426,146 @@ public class User_Controller {
         }
         
         try {
-            log.debug("Updating profile for user ID: {}, Email: {}", loggedInUser.getId(), loggedInUser.getEmail());
-            user.setId(loggedInUser.getId());
+            log.debug("Updating profile for user ID: {}, Email: {}", loggedInUser.id(), loggedInUser.email());
+            user.setId(loggedInUser.id());
             User updatedUser = userService.updateUser(user);
-            session.setAttribute("loggedInUser", updatedUser);
+            // Only touch the session when what it holds actually changed
+            SessionUser refreshed = SessionUser.from(updatedUser);
+            if (!refreshed.equals(loggedInUser)) {
+                session.setAttribute(SessionUser.ATTRIBUTE, refreshed);
+            }
             
             log.info("Profile updated successfully for user: {}, IP: {}", updatedUser.getEmail(), clientIp);
             redirectAttributes.addFlashAttribute("success", "Profile updated successfully");
             return "redirect:/profile";
         } catch (Exception e) {
-            log.error("Profile update failed for user: {}, IP: {}", loggedInUser.getEmail(), clientIp, e);
+            log.error("Profile update failed for user: {}, IP: {}", loggedInUser.email(), clientIp, e);
             redirectAttributes.addFlashAttribute("error", "Profile update failed: " + e.getMessage());
             return "redirect:/profile";
         }
     }
     
     /**
-     * Scheduled cleanup method - runs every 5 minutes (configurable via YAML)
-     */
-    @Scheduled(fixedRateString = "${app.cleanup.interval:300000}")
-    public void cleanupExpiredPendingUsers() {
-        log.debug("=== SCHEDULED CLEANUP START ===");
-        long startTime = System.currentTimeMillis();
-        
-        if (enableDetailedLogging) {
-            log.debug("Starting cleanup - Current pending users: {}, Current codes: {}", 
-                     pendingUsers.size(), verificationCodes.size());
-        }
-        
-        int removedUsers = 0;
-        int removedCodes = 0;
-        
-        // Clean up expired pending users
-        var iterator = pendingUsers.entrySet().iterator();
-        while (iterator.hasNext()) {
-            var entry = iterator.next();
-            if (entry.getValue().isExpired()) {
-                iterator.remove();
-                removedUsers++;
-                
-                if (verificationCodes.remove(entry.getKey()) != null) {
-                    removedCodes++;
-                }
-                
-                if (enableDetailedLogging) {
-                    log.debug("Cleaned up expired pending user: {}, Expired at: {}", 
-                             entry.getKey(), entry.getValue().expiryTime);
-                }
-            }
-        }
-        
-        // Clean up orphaned verification codes
-        var codeIterator = verificationCodes.entrySet().iterator();
-        while (codeIterator.hasNext()) {
-            var entry = codeIterator.next();
-            if (!pendingUsers.containsKey(entry.getKey())) {
-                codeIterator.remove();
-                removedCodes++;
-                
-                if (enableDetailedLogging) {
-                    log.debug("Cleaned up orphaned verification code for: {}", entry.getKey());
-                }
-            }
-        }
-        
-        long processingTime = System.currentTimeMillis() - startTime;
-        
-        if (removedUsers > 0 || removedCodes > 0) {
-            log.info("=== CLEANUP COMPLETED === Removed {} expired users and {} codes in {}ms. " +
-                    "Remaining - Pending users: {}, Codes: {}", 
-                    removedUsers, removedCodes, processingTime, pendingUsers.size(), verificationCodes.size());
-        } else if (enableDetailedLogging) {
-            log.debug("=== CLEANUP COMPLETED === No expired items found in {}ms. " +
-                     "Current - Pending users: {}, Codes: {}", 
-                     processingTime, pendingUsers.size(), verificationCodes.size());
-        }
-    }
-    
-    /**
-     * Manual cleanup endpoint for testing/admin purposes
+     * Manual cleanup endpoint for testing/admin purposes. Goes through the job scheduler, so it
+     * is skipped when the job is already running here or another node holds its lease.
      */
     @PostMapping("/admin/cleanup")
     public ResponseEntity<?> manualCleanup(HttpServletRequest httpRequest) {
         String clientIp = getClientIpAddress(httpRequest);
         log.info("=== MANUAL CLEANUP TRIGGERED === IP: {}", clientIp);
         
-        try {
-            cleanupExpiredPendingUsers();
-            
-            log.info("Manual cleanup completed successfully. IP: {}", clientIp);
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "message", "Cleanup completed successfully",
-                "pendingUsers", pendingUsers.size(),
-                "verificationCodes", verificationCodes.size()
-            ));
-        } catch (Exception e) {
-            log.error("Manual cleanup failed. IP: {}", clientIp, e);
+        JobRun run = jobScheduler.runNow(CleanupJobs.PENDING_SIGNUP_CLEANUP);
+        if (run.outcome() == JobRun.Outcome.FAILED) {
+            log.error("Manual cleanup failed. IP: {}, Error: {}", clientIp, run.error());
             return ResponseEntity.internalServerError().body(Map.of(
                 "success", false,
-                "message", "Cleanup failed: " + e.getMessage()
+                "message", "Cleanup failed: " + run.error()
             ));
         }
+        
+        log.info("Manual cleanup finished with outcome {}. IP: {}", run.outcome(), clientIp);
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", run.outcome() == JobRun.Outcome.SUCCEEDED
+                ? "Cleanup completed successfully"
+                : "Cleanup skipped: already running on this or another node",
+            "outcome", run.outcome(),
+            "removed", run.processed(),
+            "pendingUsers", pendingSignupStore.size()
+        ));
+    }
+    
+    /**
+     * Recent runs of the scheduled jobs on this node
+     */
+    @GetMapping("/admin/jobs")
+    public ResponseEntity<?> jobHistory() {
+        return ResponseEntity.ok(Map.of(
+            "node", jobScheduler.getNodeId(),
+            "jobs", jobScheduler.getHistory()
+        ));
+    }
+    
+    /**
+     * Farmer-herder conflict zone report built from the in-memory proximity grid
+     */
+    @GetMapping("/admin/conflict-zones")
+    public ResponseEntity<?> conflictZones(@RequestParam(value = "bufferKm", required = false) Double bufferKm,
+                                           HttpServletRequest httpRequest) {
+        String clientIp = getClientIpAddress(httpRequest);
+        double buffer = bufferKm != null ? bufferKm : defaultConflictBufferKm;
+        if (buffer < 0 || buffer > 100) {
+            return createErrorResponse("bufferKm must be between 0 and 100");
+        }
+        if (!conflictMatchingService.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "30")
+                .body(Map.of(
+                    "success", false,
+                    "message", "Proximity data is still loading"
+                ));
+        }
+        
+        log.info("Conflict zone report requested. Buffer: {} km, IP: {}", buffer, clientIp);
+        ConflictZoneReport report = conflictMatchingService.buildConflictReport(buffer);
+        return ResponseEntity.ok(report);
     }
 
     /**
      * Utility method to generate 6-digit verification code
      */
     private String generateVerificationCode() {
-        Random random = new Random();
-        int code = 100000 + random.nextInt(900000);
-        String verificationCode = String.valueOf(code);
-        log.debug("Verification code generated successfully");
-        return verificationCode;
+        return VerificationCodes.generate();
     }
     
     /**
      * Utility method to get client IP address
      */
     private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty() && !xForwardedFor.equalsIgnoreCase("unknown")) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty() && !xRealIp.equalsIgnoreCase("unknown")) {
-            return xRealIp;
-        }
-        
-        return request.getRemoteAddr();
+        return ClientAddress.of(request);
+    }
+    
+    // Existing session id only; logging must not create a session for an anonymous request
+    private String sessionId(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return session != null ? session.getId() : null;
+    }
+    
+    private boolean verificationEmailInFlight(String email) {
+        MailDispatchService.DispatchStatus status = mailDispatchService.getStatus(email);
+        return status == MailDispatchService.DispatchStatus.QUEUED
+            || status == MailDispatchService.DispatchStatus.SENDING
+            || status == MailDispatchService.DispatchStatus.RETRYING;
+    }
+    
+    // Sent or still on its way; unknown and failed deliveries are sent again
+    private boolean verificationEmailDelivered(String email) {
+        return verificationEmailInFlight(email)
+            || mailDispatchService.getStatus(email) == MailDispatchService.DispatchStatus.SENT;
+    }
+    
+    /**
+     * Utility method to reject a request that is over the signup rate limit
+     */
+    private ResponseEntity<?> createRateLimitedResponse(RateLimitDecision decision) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header("Retry-After", String.valueOf(decision.retryAfterSeconds()))
+            .body(Map.of(
+                "success", false,
+                "message", "Too many requests. Please try again later."
+            ));
+    }
+    
+    /**
+     * Utility method to tell the client the mail backlog is full and it should retry shortly
+     */
+    private ResponseEntity<?> createBusyResponse() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header("Retry-After", "30")
+            .body(Map.of(
+                "success", false,
+                "message", "We are sending a lot of emails right now. Please try again shortly."
+            ));
     }
     
     /**
@@ -1,16 +1,23 @@
 package com.example.GreenPath.Controller;
 
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
-import com.example.GreenPath.Model.User;
+import com.example.GreenPath.DTO.SessionUser;
+import com.example.GreenPath.DTO.UserProfile;
 import com.example.GreenPath.Model.UserType;
+import com.example.GreenPath.Service.userService;
 
 import jakarta.servlet.http.HttpSession;
 
 @Controller
 public class WebController {
+
+    @Autowired
+    private userService userService;
+
     // Home/Landing page
     @GetMapping("/")
     public String homepage() {
@@ -34,48 +41,47 @@ public class WebController {
     // Role-specific dashboards
     @GetMapping("/admin/dashboard")
     public String adminDashboard(HttpSession session, Model model) {
-        User loggedInUser = (User) session.getAttribute("loggedInUser");
-        String userRole = (String) session.getAttribute("userRole");
+        UserProfile loggedInUser = currentUser(session, UserType.ADMIN);
         
-        if (loggedInUser == null || !"admin".equalsIgnoreCase(userRole)) {
+        if (loggedInUser == null) {
             return "redirect:/login";
         }
         
         model.addAttribute("user", loggedInUser);
-        model.addAttribute("role", userRole);
+        model.addAttribute("role", loggedInUser.userType().getDisplayName());
         return "admin/dashboard";
     }
 
     @GetMapping("/farmer/dashboard")
     public String farmerDashboard(HttpSession session, Model model) {
-        User loggedInUser = (User) session.getAttribute("loggedInUser");
+        UserProfile loggedInUser = currentUser(session, UserType.FARMER);
         
-        if (loggedInUser == null || loggedInUser.getUserType() != UserType.FARMER) {
+        if (loggedInUser == null) {
             return "redirect:/login";
         }
         
         model.addAttribute("user", loggedInUser);
-        model.addAttribute("role", loggedInUser.getUserType().getDisplayName());
+        model.addAttribute("role", loggedInUser.userType().getDisplayName());
         return "farmer/dashboard";
     }
 
      @GetMapping("/herder/dashboard")
     public String herderDashboard(HttpSession session, Model model) {
-        User loggedInUser = (User) session.getAttribute("loggedInUser");
+        UserProfile loggedInUser = currentUser(session, UserType.HERDER);
         
-        if (loggedInUser == null || loggedInUser.getUserType() != UserType.HERDER) {
+        if (loggedInUser == null) {
             return "redirect:/login";
         }
         
         model.addAttribute("user", loggedInUser);
-        model.addAttribute("role", loggedInUser.getUserType().getDisplayName());
+        model.addAttribute("role", loggedInUser.userType().getDisplayName());
         return "herder/dashboard";
     }
 
     // Profile page
     @GetMapping("/profile")
     public String profile(HttpSession session, Model model) {
-        User loggedInUser = (User) session.getAttribute("loggedInUser");
+        UserProfile loggedInUser = currentUser(session, null);
         
         if (loggedInUser == null) {
             return "redirect:/login";
@@ -102,4 +108,13 @@ public class WebController {
     public String contact() {
         return "contact";
     }
+
+    // Logged-in user's profile (served from the user cache), or null when absent or of the wrong type
+    private UserProfile currentUser(HttpSession session, UserType requiredType) {
+        SessionUser sessionUser = (SessionUser) session.getAttribute(SessionUser.ATTRIBUTE);
+        if (sessionUser == null || (requiredType != null && sessionUser.userType() != requiredType)) {
+            return null;
+        }
+        return userService.findProfile(sessionUser.id());
+    }
 }
\ No newline at end of file
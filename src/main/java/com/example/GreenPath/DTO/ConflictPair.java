@@ -0,0 +1,8 @@
+package com.example.GreenPath.DTO;
+
+/**
+ * A farm and a grazing area that lie within the conflict buffer of each other. The distance is
+ * measured from the farm centre to the edge of the grazing circle (0 when they overlap).
+ */
+public record ConflictPair(long farmerId, long herderId, double distanceKm) {
+}
@@ -0,0 +1,21 @@
+package com.example.GreenPath.DTO;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of a full farmer-herder proximity sweep. Pairs are ordered closest first and capped
+ * at the configured maximum; totalPairs is the count before the cap.
+ */
+public record ConflictZoneReport(Instant generatedAt,
+                                 double bufferKm,
+                                 int farmers,
+                                 int herders,
+                                 long totalPairs,
+                                 List<ConflictPair> pairs,
+                                 long elapsedMillis) {
+
+    public boolean isTruncated() {
+        return totalPairs > pairs.size();
+    }
+}
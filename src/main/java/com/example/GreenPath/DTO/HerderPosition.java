@@ -0,0 +1,7 @@
+package com.example.GreenPath.DTO;
+
+/**
+ * Latest known position of a herder, as broadcast to route subscribers.
+ */
+public record HerderPosition(long herderId, double latitude, double longitude, long recordedAtMillis) {
+}
@@ -0,0 +1,23 @@
+package com.example.GreenPath.DTO;
+
+import java.time.Instant;
+
+/**
+ * One attempt to run a scheduled job on this node. Skipped attempts are recorded too, so the
+ * history shows when another node held the lease or the previous run was still going.
+ */
+public record JobRun(String job,
+                     String node,
+                     Instant startedAt,
+                     long durationMillis,
+                     Outcome outcome,
+                     int processed,
+                     String error) {
+
+    public enum Outcome {
+        SUCCEEDED,
+        FAILED,
+        SKIPPED_RUNNING,
+        SKIPPED_LEASED
+    }
+}
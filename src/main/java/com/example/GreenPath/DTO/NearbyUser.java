@@ -0,0 +1,9 @@
+package com.example.GreenPath.DTO;
+
+import com.example.GreenPath.Model.User;
+
+/**
+ * A user returned by a proximity query together with its distance from the query point.
+ */
+public record NearbyUser(User user, double distanceKm) {
+}
@@ -0,0 +1,36 @@
+package com.example.GreenPath.DTO;
+
+import com.example.GreenPath.Model.UserType;
+
+/**
+ * Compact, immutable record of a registration that is waiting for email verification.
+ * The password is stored already encoded so the raw value never outlives the signup request.
+ */
+public record PendingSignup(
+        String email,
+        String firstName,
+        String lastName,
+        String phoneNumber,
+        String passwordHash,
+        UserType userType,
+        String verificationCode,
+        long expiresAtMillis) {
+
+    public boolean isExpired() {
+        return isExpiredAt(System.currentTimeMillis());
+    }
+
+    public boolean isExpiredAt(long nowMillis) {
+        return nowMillis > expiresAtMillis;
+    }
+
+    public boolean codeMatches(String code) {
+        return verificationCode != null && verificationCode.equals(code);
+    }
+
+    // Copy with a fresh verification code, keeping the original expiry
+    public PendingSignup withVerificationCode(String newCode) {
+        return new PendingSignup(email, firstName, lastName, phoneNumber, passwordHash,
+                userType, newCode, expiresAtMillis);
+    }
+}
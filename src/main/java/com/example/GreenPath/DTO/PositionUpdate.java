@@ -0,0 +1,7 @@
+package com.example.GreenPath.DTO;
+
+/**
+ * Position report sent by a herder's client over STOMP.
+ */
+public record PositionUpdate(Double latitude, Double longitude) {
+}
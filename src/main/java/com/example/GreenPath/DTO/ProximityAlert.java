@@ -0,0 +1,8 @@
+package com.example.GreenPath.DTO;
+
+/**
+ * Sent to a farmer when a herder's grazing area comes within the alert radius of their farm.
+ */
+public record ProximityAlert(long farmerId, long herderId, double distanceKm,
+                             double latitude, double longitude, long recordedAtMillis) {
+}
@@ -0,0 +1,30 @@
+package com.example.GreenPath.DTO;
+
+import java.io.Serializable;
+
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Model.UserType;
+
+/**
+ * What the HTTP session remembers about the logged-in user. Pages load a UserProfile through
+ * the user cache by id, so the session never carries (or re-serializes) the entity.
+ */
+public record SessionUser(Long id, String email, UserType userType) implements Serializable {
+
+    public static final String ATTRIBUTE = "loggedInUser";
+
+    public static SessionUser from(User user) {
+        return new SessionUser(user.getId(), user.getEmail(), user.getUserType());
+    }
+
+    // From an authentication principal; null for principals that aren't GreenPath users
+    public static SessionUser fromPrincipal(Object principal) {
+        if (principal instanceof User user) {
+            return from(user);
+        }
+        if (principal instanceof UserCredentials credentials) {
+            return new SessionUser(credentials.id(), credentials.email(), credentials.userType());
+        }
+        return null;
+    }
+}
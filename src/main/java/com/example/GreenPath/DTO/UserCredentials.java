@@ -0,0 +1,47 @@
+package com.example.GreenPath.DTO;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.example.GreenPath.Model.UserType;
+
+/**
+ * Read-only projection of the columns authentication needs. Loaded with a constructor
+ * expression, so it is never managed by the persistence context.
+ */
+public record UserCredentials(
+        Long id,
+        String email,
+        String password,
+        UserType userType,
+        boolean enabled) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + userType.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.GreenPath.DTO;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.example.GreenPath.Model.Crop;
+import com.example.GreenPath.Model.LivestockType;
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Model.UserType;
+
+/**
+ * Immutable copy of a user for pages and the user cache. Built inside a transaction with the
+ * crop and livestock names already resolved, so it can be shared between threads and read
+ * after the session closes. Carries no password or verification code.
+ */
+public record UserProfile(
+        Long id,
+        String firstName,
+        String lastName,
+        String email,
+        String phoneNumber,
+        UserType userType,
+        String location,
+        String bio,
+        String profileImageUrl,
+        boolean enabled,
+        boolean verified,
+        LocalDateTime createdAt,
+        LocalDateTime lastLogin,
+        String farmName,
+        Double farmSizeHectares,
+        Set<String> crops,
+        Integer farmingExperienceYears,
+        Double farmLatitude,
+        Double farmLongitude,
+        Set<String> livestockTypes,
+        Integer herdSize,
+        String grazingArea,
+        Double grazingLatitude,
+        Double grazingLongitude,
+        Double grazingRadiusKm,
+        Integer herdingExperienceYears) implements Serializable {
+
+    public UserProfile {
+        crops = Set.copyOf(crops);
+        livestockTypes = Set.copyOf(livestockTypes);
+    }
+
+    // Touches the lazy catalog collections, so call it while the entity is still managed
+    public static UserProfile from(User user) {
+        return new UserProfile(
+                user.getId(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getEmail(),
+                user.getPhoneNumber(),
+                user.getUserType(),
+                user.getLocation(),
+                user.getBio(),
+                user.getProfileImageUrl(),
+                user.isEnabled(),
+                user.isVerified(),
+                user.getCreatedAt(),
+                user.getLastLogin(),
+                user.getFarmName(),
+                user.getFarmSizeHectares(),
+                user.getCrops().stream().map(Crop::getName).collect(Collectors.toUnmodifiableSet()),
+                user.getFarmingExperienceYears(),
+                user.getFarmLatitude(),
+                user.getFarmLongitude(),
+                user.getLivestockTypes().stream().map(LivestockType::getName).collect(Collectors.toUnmodifiableSet()),
+                user.getHerdSize(),
+                user.getGrazingArea(),
+                user.getGrazingLatitude(),
+                user.getGrazingLongitude(),
+                user.getGrazingRadiusKm(),
+                user.getHerdingExperienceYears());
+    }
+
+    public String fullName() {
+        return firstName + " " + lastName;
+    }
+}
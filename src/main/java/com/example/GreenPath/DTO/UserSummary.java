@@ -0,0 +1,24 @@
+package com.example.GreenPath.DTO;
+
+import java.time.LocalDateTime;
+
+import com.example.GreenPath.Model.UserType;
+
+/**
+ * Read-only projection for user listing screens; skips bio, profile and farm/herd details.
+ */
+public record UserSummary(
+        Long id,
+        String firstName,
+        String lastName,
+        String email,
+        UserType userType,
+        String location,
+        boolean enabled,
+        boolean verified,
+        LocalDateTime createdAt) {
+
+    public String fullName() {
+        return firstName + " " + lastName;
+    }
+}
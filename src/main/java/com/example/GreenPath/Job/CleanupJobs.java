@@ -0,0 +1,40 @@
+package com.example.GreenPath.Job;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.GreenPath.Service.PendingSignupStore;
+import com.example.GreenPath.Service.userService;
+
+/**
+ * Cleanup jobs run by JobScheduler.
+ */
+@Configuration
+public class CleanupJobs {
+
+    public static final String PENDING_SIGNUP_CLEANUP = "pending-signup-cleanup";
+    public static final String VERIFICATION_CODE_CLEANUP = "verification-code-cleanup";
+
+    // Only a shared (jdbc) store needs a lease; an in-memory store must be purged on every node
+    @Bean
+    JobDefinition pendingSignupCleanupJob(userService userService,
+                                          PendingSignupStore pendingSignupStore,
+                                          @Value("${app.jobs.pending-signup-cleanup.interval-ms:${app.cleanup.interval:300000}}") long intervalMs,
+                                          @Value("${app.jobs.pending-signup-cleanup.jitter-ms:30000}") long jitterMs,
+                                          @Value("${app.jobs.pending-signup-cleanup.lock-at-most-ms:600000}") long lockAtMostMs,
+                                          @Value("${app.jobs.pending-signup-cleanup.lock-at-least-ms:60000}") long lockAtLeastMs) {
+        return new JobDefinition(PENDING_SIGNUP_CLEANUP, intervalMs, jitterMs, lockAtMostMs, lockAtLeastMs,
+                pendingSignupStore.isShared(), userService::cleanupExpiredPendingSignups);
+    }
+
+    @Bean
+    JobDefinition verificationCodeCleanupJob(userService userService,
+                                             @Value("${app.jobs.verification-code-cleanup.interval-ms:${app.cleanup.interval:300000}}") long intervalMs,
+                                             @Value("${app.jobs.verification-code-cleanup.jitter-ms:30000}") long jitterMs,
+                                             @Value("${app.jobs.verification-code-cleanup.lock-at-most-ms:600000}") long lockAtMostMs,
+                                             @Value("${app.jobs.verification-code-cleanup.lock-at-least-ms:60000}") long lockAtLeastMs) {
+        return new JobDefinition(VERIFICATION_CODE_CLEANUP, intervalMs, jitterMs, lockAtMostMs, lockAtLeastMs,
+                true, userService::cleanupExpiredVerificationCodes);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.GreenPath.Job;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+
+/**
+ * Fixed delay between the end of one run and the start of the next, plus a random jitter so
+ * nodes started together don't all hit the lease table at the same instant.
+ */
+final class JitteredTrigger implements Trigger {
+
+    private final long intervalMillis;
+    private final long jitterMillis;
+
+    JitteredTrigger(long intervalMillis, long jitterMillis) {
+        this.intervalMillis = intervalMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    @Override
+    public Instant nextExecution(TriggerContext context) {
+        Instant lastCompletion = context.lastCompletion();
+        // The first run only waits for the jitter, like a fixed-rate task starting at boot
+        Instant base = lastCompletion != null ? lastCompletion.plusMillis(intervalMillis) : context.getClock().instant();
+        long jitter = jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0;
+        return base.plusMillis(jitter);
+    }
+
+    @Override
+    public String toString() {
+        return "fixed delay " + intervalMillis + "ms, jitter up to " + jitterMillis + "ms";
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.GreenPath.Job;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A job run by JobScheduler. The task returns the number of rows or entries it processed.
+ *
+ * Clustered jobs take a database lease first so only one node runs them at a time; node-local
+ * jobs (for example purging an in-memory store) run on every node. lockAtMostMillis bounds the
+ * lease if a node dies mid-run, and lockAtLeastMillis keeps other nodes from rerunning the job
+ * right after a quick run.
+ */
+public record JobDefinition(String name,
+                            long intervalMillis,
+                            long jitterMillis,
+                            long lockAtMostMillis,
+                            long lockAtLeastMillis,
+                            boolean clustered,
+                            IntSupplier task) {
+
+    public JobDefinition {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Job " + name + " needs a positive interval");
+        }
+        jitterMillis = Math.max(0, jitterMillis);
+        lockAtMostMillis = Math.max(lockAtMostMillis, intervalMillis);
+        lockAtLeastMillis = Math.min(Math.max(0, lockAtLeastMillis), lockAtMostMillis);
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.GreenPath.Job;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import com.example.GreenPath.DTO.JobRun;
+import com.example.GreenPath.Repository.JobLeaseRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs every JobDefinition bean on a jittered fixed-delay trigger.
+ *
+ * A job never overlaps itself on one node, and clustered jobs additionally take a lease in the
+ * job_leases table so only one node runs them at a time. The triggers are registered with the
+ * Spring scheduler, so they appear in the scheduledtasks actuator endpoint; run timings are
+ * published as greenpath.jobs.* metrics and the last few runs of each job are kept in memory.
+ */
+@Slf4j
+@Component
+public class JobScheduler implements SchedulingConfigurer {
+
+    private final Map<String, JobDefinition> jobs = new LinkedHashMap<>();
+    private final JobLeaseRepository leaseRepository;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+    private final int historySize;
+
+    private final Map<String, AtomicBoolean> running = new ConcurrentHashMap<>();
+    private final Map<String, Deque<JobRun>> history = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> lastSuccessMillis = new ConcurrentHashMap<>();
+
+    public JobScheduler(List<JobDefinition> definitions,
+                        JobLeaseRepository leaseRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.jobs.history-size:20}") int historySize) {
+        this.leaseRepository = leaseRepository;
+        this.meterRegistry = meterRegistry;
+        this.historySize = Math.max(1, historySize);
+        // pid@host is unique per JVM on a host; the suffix covers containers that all run as pid 1
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+        for (JobDefinition job : definitions) {
+            if (jobs.putIfAbsent(job.name(), job) != null) {
+                throw new IllegalStateException("Duplicate job name: " + job.name());
+            }
+            running.put(job.name(), new AtomicBoolean());
+            history.put(job.name(), new ArrayDeque<>(this.historySize));
+            AtomicLong lastSuccess = new AtomicLong();
+            lastSuccessMillis.put(job.name(), lastSuccess);
+            Gauge.builder("greenpath.jobs.last.success", lastSuccess, value -> value.get() / 1000.0)
+                    .description("Epoch seconds of the job's last successful run on this node")
+                    .tag("job", job.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        for (JobDefinition job : jobs.values()) {
+            registrar.addTriggerTask(new ScheduledJob(job), new JitteredTrigger(job.intervalMillis(), job.jitterMillis()));
+            log.info("Scheduled job {} every {}ms (jitter {}ms, {})", job.name(), job.intervalMillis(),
+                    job.jitterMillis(), job.clustered() ? "clustered" : "node-local");
+        }
+    }
+
+    /**
+     * Run a job now, with the same overlap and lease checks as a scheduled run.
+     */
+    public JobRun runNow(String name) {
+        JobDefinition job = jobs.get(name);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown job: " + name);
+        }
+        return run(job);
+    }
+
+    // Most recent runs per job, newest first
+    public Map<String, List<JobRun>> getHistory() {
+        Map<String, List<JobRun>> snapshot = new LinkedHashMap<>();
+        for (String name : jobs.keySet()) {
+            Deque<JobRun> runs = history.get(name);
+            synchronized (runs) {
+                snapshot.put(name, new ArrayList<>(runs));
+            }
+        }
+        return snapshot;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private JobRun run(JobDefinition job) {
+        Instant startedAt = Instant.now();
+        AtomicBoolean guard = running.get(job.name());
+        if (!guard.compareAndSet(false, true)) {
+            return record(job, startedAt, 0, JobRun.Outcome.SKIPPED_RUNNING, 0, null);
+        }
+        try {
+            if (job.clustered() && !tryAcquireLease(job)) {
+                return record(job, startedAt, 0, JobRun.Outcome.SKIPPED_LEASED, 0, null);
+            }
+            long start = System.nanoTime();
+            try {
+                int processed = job.task().getAsInt();
+                long elapsed = System.nanoTime() - start;
+                lastSuccessMillis.get(job.name()).set(System.currentTimeMillis());
+                return record(job, startedAt, elapsed, JobRun.Outcome.SUCCEEDED, processed, null);
+            } catch (RuntimeException e) {
+                log.error("Job {} failed", job.name(), e);
+                return record(job, startedAt, System.nanoTime() - start, JobRun.Outcome.FAILED, 0, e.getMessage());
+            } finally {
+                if (job.clustered()) {
+                    releaseLease(job);
+                }
+            }
+        } finally {
+            guard.set(false);
+        }
+    }
+
+    private boolean tryAcquireLease(JobDefinition job) {
+        try {
+            return leaseRepository.tryAcquire(job.name(), nodeId, job.lockAtMostMillis());
+        } catch (DataAccessException e) {
+            log.warn("Could not acquire lease for job {}: {}", job.name(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void releaseLease(JobDefinition job) {
+        try {
+            leaseRepository.release(job.name(), nodeId, job.lockAtLeastMillis());
+        } catch (DataAccessException e) {
+            // The lease still expires after lockAtMost
+            log.warn("Could not release lease for job {}: {}", job.name(), e.getMessage());
+        }
+    }
+
+    private JobRun record(JobDefinition job, Instant startedAt, long elapsedNanos,
+                          JobRun.Outcome outcome, int processed, String error) {
+        JobRun run = new JobRun(job.name(), nodeId, startedAt, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                outcome, processed, error);
+        Deque<JobRun> runs = history.get(job.name());
+        synchronized (runs) {
+            if (runs.size() >= historySize) {
+                runs.removeLast();
+            }
+            runs.addFirst(run);
+        }
+
+        String outcomeTag = outcome.name().toLowerCase();
+        if (outcome == JobRun.Outcome.SUCCEEDED || outcome == JobRun.Outcome.FAILED) {
+            Timer.builder("greenpath.jobs.run")
+                    .description("Duration of scheduled job runs")
+                    .tag("job", job.name())
+                    .tag("outcome", outcomeTag)
+                    .register(meterRegistry)
+                    .record(elapsedNanos, TimeUnit.NANOSECONDS);
+            Counter.builder("greenpath.jobs.processed")
+                    .description("Rows or entries processed by scheduled jobs")
+                    .tag("job", job.name())
+                    .register(meterRegistry)
+                    .increment(processed);
+        } else {
+            Counter.builder("greenpath.jobs.skipped")
+                    .tag("job", job.name())
+                    .tag("reason", outcomeTag)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        if (outcome == JobRun.Outcome.SUCCEEDED && processed > 0) {
+            log.info("Job {} processed {} in {}ms", job.name(), processed, run.durationMillis());
+        } else {
+            log.debug("Job {} {} in {}ms", job.name(), outcomeTag, run.durationMillis());
+        }
+        return run;
+    }
+
+    // toString names the job in the scheduledtasks endpoint
+    private final class ScheduledJob implements Runnable {
+
+        private final JobDefinition job;
+
+        ScheduledJob(JobDefinition job) {
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            JobScheduler.this.run(job);
+        }
+
+        @Override
+        public String toString() {
+            return "job:" + job.name();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.GreenPath.Logging;
+
+/**
+ * Masking for personal data in log events. Plain character loops, so masking costs one small
+ * allocation per value instead of compiling and running a regex on every call.
+ */
+public final class LogMasking {
+
+    private static final int VISIBLE_PHONE_DIGITS = 4;
+
+    private LogMasking() {
+    }
+
+    // Every digit except the last four becomes '*'; separators are kept
+    public static String phone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        int digits = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            if (Character.isDigit(phone.charAt(i))) {
+                digits++;
+            }
+        }
+        int toMask = digits - VISIBLE_PHONE_DIGITS;
+        if (toMask <= 0) {
+            return phone;
+        }
+        char[] masked = phone.toCharArray();
+        for (int i = 0; i < masked.length && toMask > 0; i++) {
+            if (Character.isDigit(masked[i])) {
+                masked[i] = '*';
+                toMask--;
+            }
+        }
+        return new String(masked);
+    }
+
+    // Keeps the first character of the local part and the whole domain: j***@example.com
+    public static String email(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return "***";
+        }
+        return email.charAt(0) + "***" + email.substring(at);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.GreenPath.Logging;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the single summary event for a signup, verification or login request.
+ *
+ * The event carries its fields both in the message (logfmt, for the plain-text pattern) and as
+ * SLF4J key-value pairs, which the structured JSON encoder emits as separate fields. Rejected and
+ * failed requests are always logged; successful ones are sampled at app.logging.success-sample-rate.
+ */
+@Component
+public class RequestSummaryLog {
+
+    private static final Logger log = LoggerFactory.getLogger("com.example.GreenPath.requests");
+
+    private final double successSampleRate;
+
+    public RequestSummaryLog(@Value("${app.logging.success-sample-rate:1.0}") double successSampleRate) {
+        this.successSampleRate = Math.max(0, Math.min(1, successSampleRate));
+    }
+
+    public void emit(String operation, String outcome, String userType, String reason,
+                     long durationMillis, Map<String, String> fields, Throwable error) {
+        LoggingEventBuilder event;
+        if ("success".equals(outcome)) {
+            if (!log.isInfoEnabled() || !sampled()) {
+                return;
+            }
+            event = log.atInfo();
+        } else if (error != null) {
+            event = log.atError().setCause(error);
+        } else {
+            event = log.atWarn();
+        }
+
+        StringBuilder message = new StringBuilder(128)
+                .append("operation=").append(operation)
+                .append(" outcome=").append(outcome)
+                .append(" user_type=").append(userType)
+                .append(" duration_ms=").append(durationMillis);
+        event.addKeyValue("operation", operation)
+                .addKeyValue("outcome", outcome)
+                .addKeyValue("user_type", userType)
+                .addKeyValue("duration_ms", durationMillis);
+        if (reason != null) {
+            message.append(" reason=").append(reason);
+            event.addKeyValue("reason", reason);
+        }
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (field.getValue() != null) {
+                message.append(' ').append(field.getKey()).append('=').append(field.getValue());
+                event.addKeyValue(field.getKey(), field.getValue());
+            }
+        }
+        event.log(message.toString());
+    }
+
+    private boolean sampled() {
+        return successSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < successSampleRate;
+    }
+}
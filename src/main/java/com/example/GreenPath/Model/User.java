@@ -3,6 +3,8 @@ package com.example.GreenPath.Model;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -12,10 +14,14 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
@@ -25,13 +31,18 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "users", indexes = {
     @Index(name = "idx_email", columnList = "email"),
     @Index(name = "idx_phone", columnList = "phone_number"),
-    @Index(name = "idx_verification_code", columnList = "verification_code")
+    @Index(name = "idx_verification_code", columnList = "verification_code"),
+    @Index(name = "idx_verification_code_expiry", columnList = "verification_code_expiry"),
+    @Index(name = "idx_farm_coordinates", columnList = "farm_latitude, farm_longitude"),
+    @Index(name = "idx_grazing_coordinates", columnList = "grazing_latitude, grazing_longitude")
 })
 @Data
 @NoArgsConstructor
@@ -113,19 +124,62 @@ public class User implements UserDetails {
     @Column(name = "primary_crops")
     private String primaryCrops;
     
+    // Normalized catalog entries parsed from primaryCrops
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+        name = "user_crops",
+        joinColumns = @JoinColumn(name = "user_id"),
+        inverseJoinColumns = @JoinColumn(name = "crop_id"),
+        indexes = @Index(name = "idx_user_crops_crop_user", columnList = "crop_id, user_id")
+    )
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<Crop> crops = new HashSet<>();
+    
     @Column(name = "farming_experience_years")
     private Integer farmingExperienceYears;
     
+    // Farm centre point (WGS84 degrees)
+    @Column(name = "farm_latitude")
+    private Double farmLatitude;
+    
+    @Column(name = "farm_longitude")
+    private Double farmLongitude;
+    
     // Herder-specific fields
     @Column(name = "herd_type")
     private String herdType;
     
+    // Normalized catalog entries parsed from herdType
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+        name = "user_livestock_types",
+        joinColumns = @JoinColumn(name = "user_id"),
+        inverseJoinColumns = @JoinColumn(name = "livestock_type_id"),
+        indexes = @Index(name = "idx_user_livestock_type_user", columnList = "livestock_type_id, user_id")
+    )
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<LivestockType> livestockTypes = new HashSet<>();
+    
     @Column(name = "herd_size")
     private Integer herdSize;
     
     @Column(name = "grazing_area")
     private String grazingArea;
     
+    // Grazing area approximated as a circle around a centre point (WGS84 degrees)
+    @Column(name = "grazing_latitude")
+    private Double grazingLatitude;
+    
+    @Column(name = "grazing_longitude")
+    private Double grazingLongitude;
+    
+    @Column(name = "grazing_radius_km")
+    private Double grazingRadiusKm;
+    
     @Column(name = "herding_experience_years")
     private Integer herdingExperienceYears;
     
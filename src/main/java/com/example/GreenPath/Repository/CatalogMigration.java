@@ -0,0 +1,82 @@
+package com.example.GreenPath.Repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Backfills the crop and livestock catalogs from the legacy free-text columns.
+ *
+ * Set-based and idempotent: names are split on , ; / | then lower-cased and trimmed, which
+ * matches CatalogService, and existing rows are left alone, so it is safe on every startup.
+ */
+@Slf4j
+@Component
+public class CatalogMigration {
+
+    private static final String SPLIT = "[,;/|]";
+    private static final String NORMALIZE = "regexp_replace(lower(trim(t.part)), '\\s+', ' ', 'g')";
+
+    private static final String INSERT_CROPS =
+        "INSERT INTO crops (name) " +
+        "SELECT DISTINCT " + NORMALIZE + " FROM users u " +
+        "CROSS JOIN LATERAL regexp_split_to_table(u.primary_crops, '" + SPLIT + "') AS t(part) " +
+        "WHERE u.primary_crops IS NOT NULL AND trim(t.part) <> '' " +
+        "ON CONFLICT (name) DO NOTHING";
+
+    private static final String LINK_CROPS =
+        "INSERT INTO user_crops (user_id, crop_id) " +
+        "SELECT DISTINCT u.id, c.id FROM users u " +
+        "CROSS JOIN LATERAL regexp_split_to_table(u.primary_crops, '" + SPLIT + "') AS t(part) " +
+        "JOIN crops c ON c.name = " + NORMALIZE + " " +
+        "WHERE u.primary_crops IS NOT NULL " +
+        "ON CONFLICT DO NOTHING";
+
+    private static final String INSERT_LIVESTOCK =
+        "INSERT INTO livestock_types (name) " +
+        "SELECT DISTINCT " + NORMALIZE + " FROM users u " +
+        "CROSS JOIN LATERAL regexp_split_to_table(u.herd_type, '" + SPLIT + "') AS t(part) " +
+        "WHERE u.herd_type IS NOT NULL AND trim(t.part) <> '' " +
+        "ON CONFLICT (name) DO NOTHING";
+
+    private static final String LINK_LIVESTOCK =
+        "INSERT INTO user_livestock_types (user_id, livestock_type_id) " +
+        "SELECT DISTINCT u.id, l.id FROM users u " +
+        "CROSS JOIN LATERAL regexp_split_to_table(u.herd_type, '" + SPLIT + "') AS t(part) " +
+        "JOIN livestock_types l ON l.name = " + NORMALIZE + " " +
+        "WHERE u.herd_type IS NOT NULL " +
+        "ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean migrateOnStartup;
+
+    // Depending on the EntityManagerFactory guarantees Hibernate has created the catalog tables
+    public CatalogMigration(JdbcTemplate jdbcTemplate,
+                            EntityManagerFactory entityManagerFactory,
+                            @Value("${app.catalog.migrate-on-startup:true}") boolean migrateOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.migrateOnStartup = migrateOnStartup;
+    }
+
+    @PostConstruct
+    void migrate() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        try {
+            int crops = jdbcTemplate.update(INSERT_CROPS);
+            int cropLinks = jdbcTemplate.update(LINK_CROPS);
+            int livestock = jdbcTemplate.update(INSERT_LIVESTOCK);
+            int livestockLinks = jdbcTemplate.update(LINK_LIVESTOCK);
+            log.info("Catalog migration complete. New crops: {}, crop links: {}, new livestock types: {}, livestock links: {}",
+                    crops, cropLinks, livestock, livestockLinks);
+        } catch (DataAccessException e) {
+            log.error("Catalog migration failed; crop and livestock lookups may be incomplete", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.GreenPath.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.GreenPath.Model.Crop;
+
+@Repository
+public interface CropRepository extends JpaRepository<Crop, Long> {
+
+    Optional<Crop> findByName(String name);
+
+    List<Crop> findByNameIn(Collection<String> names);
+
+    // Safe against a concurrent insert of the same name; the caller re-selects afterwards
+    @Modifying
+    @Query(value = "INSERT INTO crops (name) VALUES (:name) ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+}
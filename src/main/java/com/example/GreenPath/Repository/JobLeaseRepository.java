@@ -0,0 +1,65 @@
+package com.example.GreenPath.Repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Named leases in PostgreSQL that let one node at a time run a clustered job.
+ *
+ * All expiry checks use the database clock, so clock skew between nodes can't make two of them
+ * believe they hold the same lease. A lease that is never released (node crash) simply expires.
+ */
+@Slf4j
+@Repository
+public class JobLeaseRepository {
+
+    private static final String CREATE_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS job_leases (" +
+        "job_name VARCHAR(100) PRIMARY KEY, " +
+        "owner VARCHAR(255) NOT NULL, " +
+        "locked_at TIMESTAMPTZ NOT NULL, " +
+        "locked_until TIMESTAMPTZ NOT NULL)";
+
+    // Inserts the lease, or takes it over only once the current holder's lease has run out
+    private static final String ACQUIRE_SQL =
+        "INSERT INTO job_leases (job_name, owner, locked_at, locked_until) " +
+        "VALUES (?, ?, now(), now() + ? * INTERVAL '1 millisecond') " +
+        "ON CONFLICT (job_name) DO UPDATE SET owner = EXCLUDED.owner, " +
+        "locked_at = EXCLUDED.locked_at, locked_until = EXCLUDED.locked_until " +
+        "WHERE job_leases.locked_until <= now()";
+
+    // Keeps the lease until at least locked_at + minimum hold, so other nodes don't rerun the job straight away
+    private static final String RELEASE_SQL =
+        "UPDATE job_leases SET locked_until = GREATEST(now(), locked_at + ? * INTERVAL '1 millisecond') " +
+        "WHERE job_name = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean initializeSchema;
+
+    public JobLeaseRepository(JdbcTemplate jdbcTemplate,
+                              @Value("${app.jobs.initialize-schema:true}") boolean initializeSchema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.initializeSchema = initializeSchema;
+    }
+
+    @PostConstruct
+    void createTable() {
+        if (initializeSchema) {
+            jdbcTemplate.execute(CREATE_TABLE_SQL);
+            log.info("Job lease table initialized");
+        }
+    }
+
+    // Try to take the lease for leaseMillis; false when another node holds it
+    public boolean tryAcquire(String jobName, String owner, long leaseMillis) {
+        return jdbcTemplate.update(ACQUIRE_SQL, jobName, owner, leaseMillis) > 0;
+    }
+
+    public void release(String jobName, String owner, long minimumHoldMillis) {
+        jdbcTemplate.update(RELEASE_SQL, minimumHoldMillis, jobName, owner);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.GreenPath.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.GreenPath.Model.LivestockType;
+
+@Repository
+public interface LivestockTypeRepository extends JpaRepository<LivestockType, Long> {
+
+    Optional<LivestockType> findByName(String name);
+
+    List<LivestockType> findByNameIn(Collection<String> names);
+
+    // Safe against a concurrent insert of the same name; the caller re-selects afterwards
+    @Modifying
+    @Query(value = "INSERT INTO livestock_types (name) VALUES (:name) ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+}
@@ -3,15 +3,25 @@ package com.example.GreenPath.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.GreenPath.DTO.UserCredentials;
+import com.example.GreenPath.DTO.UserSummary;
 import com.example.GreenPath.Model.User;
 import com.example.GreenPath.Model.UserType;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
@@ -21,9 +31,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find by phone number
     Optional<User> findByPhoneNumber(String phoneNumber);
 
+    // Authentication projection: only the columns login needs, never a managed entity
+    @Query("SELECT new com.example.GreenPath.DTO.UserCredentials(u.id, u.email, u.password, u.userType, u.enabled) " +
+           "FROM User u WHERE u.email = :email")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    // Listing projections for admin screens
+    @Query(value = "SELECT new com.example.GreenPath.DTO.UserSummary(u.id, u.firstName, u.lastName, u.email, u.userType, " +
+           "u.location, u.enabled, u.verified, u.createdAt) FROM User u ORDER BY u.id",
+           countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserSummary> findAllSummaries(Pageable pageable);
+
+    @Query(value = "SELECT new com.example.GreenPath.DTO.UserSummary(u.id, u.firstName, u.lastName, u.email, u.userType, " +
+           "u.location, u.enabled, u.verified, u.createdAt) FROM User u WHERE u.userType = :userType ORDER BY u.id",
+           countQuery = "SELECT COUNT(u) FROM User u WHERE u.userType = :userType")
+    Page<UserSummary> findSummariesByUserType(@Param("userType") UserType userType, Pageable pageable);
+
+    // Record a successful login without loading the entity
+    @Modifying
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin WHERE u.id = :id")
+    int updateLastLogin(@Param("id") Long id, @Param("lastLogin") LocalDateTime lastLogin);
+
+    // Replace a password hash in place, e.g. when re-encoding an outdated hash after login
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("password") String password);
+
     // Find by user type
     List<User> findByUserType(UserType userType);
 
+    Page<User> findByUserType(UserType userType, Pageable pageable);
+
     // Find by enabled status
     List<User> findByEnabled(boolean enabled);
 
@@ -42,10 +80,45 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find users with recent activity
     List<User> findByLastLoginAfter(LocalDateTime dateTime);
 
+    Page<User> findByLastLoginAfter(LocalDateTime dateTime, Pageable pageable);
+
+    long countByLastLoginAfter(LocalDateTime dateTime);
+
     // Search by name or location
     List<User> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrLocationContainingIgnoreCase(
         String firstName, String lastName, String location);
 
+    Slice<User> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrLocationContainingIgnoreCase(
+        String firstName, String lastName, String location, Pageable pageable);
+
+    // Ranked full-text + trigram search (columns and indexes created by UserSearchSchema)
+    @Query(value = "SELECT u.* FROM users u " +
+                   "WHERE u.search_vector @@ websearch_to_tsquery('simple', :term) " +
+                   "OR u.search_text LIKE :pattern ESCAPE '!' " +
+                   "ORDER BY ts_rank(u.search_vector, websearch_to_tsquery('simple', :term)) DESC, " +
+                   "similarity(u.search_text, :term) DESC, u.id " +
+                   "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<User> searchRanked(@Param("term") String term, @Param("pattern") String pattern,
+                            @Param("limit") int limit, @Param("offset") long offset);
+
+    // Prefix (typeahead) search; tsQuery is built from sanitized words, e.g. "jo & sm:*"
+    @Query(value = "SELECT u.* FROM users u " +
+                   "WHERE u.search_vector @@ to_tsquery('simple', :tsQuery) " +
+                   "ORDER BY ts_rank(u.search_vector, to_tsquery('simple', :tsQuery)) DESC, u.id " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<User> searchPrefix(@Param("tsQuery") String tsQuery, @Param("limit") int limit);
+
+    // Substring matches served by the trigram expression indexes; crops are looked up through
+    // the catalog instead (findFarmersByCropType)
+    @Query(value = "SELECT u.* FROM users u WHERE u.user_type = 'HERDER' " +
+                   "AND lower(u.herd_type) LIKE :pattern ESCAPE '!' ORDER BY u.id " +
+                   "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<User> searchHerdersByHerdType(@Param("pattern") String pattern, @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query(value = "SELECT u.* FROM users u WHERE lower(u.location) LIKE :pattern ESCAPE '!' ORDER BY u.id " +
+                   "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<User> searchByLocation(@Param("pattern") String pattern, @Param("limit") int limit, @Param("offset") long offset);
+
     // Find farmers with specific criteria
     @Query("SELECT u FROM User u WHERE u.userType = 'FARMER' AND u.farmSizeHectares >= :minSize")
     List<User> findFarmersByMinimumFarmSize(@Param("minSize") Double minSize);
@@ -68,28 +141,69 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.userType = 'HERDER' AND u.herdingExperienceYears >= :minYears")
     List<User> findExperiencedHerders(@Param("minYears") Integer minYears);
 
-    // Find users by crop type (for farmers)
-    @Query("SELECT u FROM User u WHERE u.userType = 'FARMER' AND u.primaryCrops LIKE %:cropType%")
+    // Find users by crop type (for farmers); an index lookup through the crop catalog
+    @Query("SELECT u FROM User u JOIN u.crops c WHERE u.userType = 'FARMER' AND c.name = :cropType")
     List<User> findFarmersByCropType(@Param("cropType") String cropType);
 
+    @Query("SELECT u FROM User u JOIN u.crops c WHERE u.userType = 'FARMER' AND c.name = :cropType ORDER BY u.id")
+    Slice<User> findFarmersByCropType(@Param("cropType") String cropType, Pageable pageable);
+
     // Find users by herd type (for herders)
     List<User> findByHerdTypeContainingIgnoreCase(String herdType);
 
+    // Find herders keeping a livestock type; an index lookup through the livestock catalog
+    @Query("SELECT u FROM User u JOIN u.livestockTypes l WHERE u.userType = 'HERDER' AND l.name = :livestockType ORDER BY u.id")
+    Slice<User> findHerdersByLivestockType(@Param("livestockType") String livestockType, Pageable pageable);
+
     // Find users in same location
     List<User> findByLocationIgnoreCase(String location);
 
+    // Bounding-box prefilters for proximity queries; both ranges are served by the coordinate indexes
+    @Query("SELECT u FROM User u WHERE u.userType = 'FARMER' " +
+           "AND u.farmLatitude BETWEEN :minLat AND :maxLat AND u.farmLongitude BETWEEN :minLon AND :maxLon")
+    List<User> findFarmersInBox(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+
+    @Query("SELECT u FROM User u WHERE u.userType = 'HERDER' " +
+           "AND u.grazingLatitude BETWEEN :minLat AND :maxLat AND u.grazingLongitude BETWEEN :minLon AND :maxLon")
+    List<User> findHerdersInBox(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                @Param("minLon") double minLon, @Param("maxLon") double maxLon);
+
     // Custom query to get user statistics
     @Query("SELECT COUNT(u), u.userType FROM User u GROUP BY u.userType")
     List<Object[]> getUserStatisticsByType();
 
+    // All dashboard figures in one table pass
+    @Query("SELECT COUNT(u) AS totalUsers, " +
+           "COALESCE(SUM(CASE WHEN u.userType = 'FARMER' THEN 1 ELSE 0 END), 0) AS farmers, " +
+           "COALESCE(SUM(CASE WHEN u.userType = 'HERDER' THEN 1 ELSE 0 END), 0) AS herders, " +
+           "COALESCE(SUM(CASE WHEN u.verified = true THEN 1 ELSE 0 END), 0) AS verifiedUsers, " +
+           "COALESCE(SUM(CASE WHEN u.lastLogin > :activeSince THEN 1 ELSE 0 END), 0) AS activeUsers " +
+           "FROM User u")
+    UserStatsView aggregateUserStats(@Param("activeSince") LocalDateTime activeSince);
+
+    interface UserStatsView {
+        Long getTotalUsers();
+        Long getFarmers();
+        Long getHerders();
+        Long getVerifiedUsers();
+        Long getActiveUsers();
+    }
+
     // Find top farmers by farm size
     @Query("SELECT u FROM User u WHERE u.userType = 'FARMER' ORDER BY u.farmSizeHectares DESC")
     List<User> findTopFarmersByFarmSize();
 
+    @Query("SELECT u FROM User u WHERE u.userType = 'FARMER' ORDER BY u.farmSizeHectares DESC")
+    Slice<User> findTopFarmersByFarmSize(Pageable pageable);
+
     // Find top herders by herd size
     @Query("SELECT u FROM User u WHERE u.userType = 'HERDER' ORDER BY u.herdSize DESC")
     List<User> findTopHerdersByHerdSize();
 
+    @Query("SELECT u FROM User u WHERE u.userType = 'HERDER' ORDER BY u.herdSize DESC")
+    Slice<User> findTopHerdersByHerdSize(Pageable pageable);
+
     // Check if email exists (for validation)
     boolean existsByEmail(String email);
 
@@ -100,13 +214,56 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u ORDER BY u.createdAt DESC")
     List<User> findRecentlyRegisteredUsers();
 
+    @Query("SELECT u FROM User u ORDER BY u.createdAt DESC")
+    Slice<User> findRecentlyRegisteredUsers(Pageable pageable);
+
+    // Keyset (seek) pagination: pass the last id seen and a page size; no OFFSET scan
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findNextPageAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE u.userType = :userType AND u.id > :afterId ORDER BY u.id")
+    List<User> findNextPageByUserTypeAfterId(@Param("userType") UserType userType, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Server-side cursor streams for batch jobs; consume inside a transaction and close the stream
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAll();
+
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT u FROM User u WHERE u.userType = :userType ORDER BY u.id")
+    Stream<User> streamByUserType(@Param("userType") UserType userType);
+
+    // Coordinates only, for loading the in-memory proximity grid without materializing entities
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT u.id AS id, u.userType AS userType, " +
+           "u.farmLatitude AS farmLatitude, u.farmLongitude AS farmLongitude, " +
+           "u.grazingLatitude AS grazingLatitude, u.grazingLongitude AS grazingLongitude, " +
+           "u.grazingRadiusKm AS grazingRadiusKm FROM User u " +
+           "WHERE (u.farmLatitude IS NOT NULL AND u.farmLongitude IS NOT NULL) " +
+           "OR (u.grazingLatitude IS NOT NULL AND u.grazingLongitude IS NOT NULL)")
+    Stream<UserLocationView> streamLocations();
+
+    interface UserLocationView {
+        Long getId();
+        UserType getUserType();
+        Double getFarmLatitude();
+        Double getFarmLongitude();
+        Double getGrazingLatitude();
+        Double getGrazingLongitude();
+        Double getGrazingRadiusKm();
+    }
+
     // Find users who haven't logged in for a specific period
     List<User> findByLastLoginBeforeOrLastLoginIsNull(LocalDateTime dateTime);
       Optional<User> findByVerificationCode(String verificationCode);
-    
-    /**
-     * Find users with expired verification codes
-     */
-    List<User> findByVerificationCodeExpiryBefore(LocalDateTime dateTime);
 
 }
\ No newline at end of file
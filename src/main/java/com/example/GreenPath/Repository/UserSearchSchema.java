@@ -0,0 +1,66 @@
+package com.example.GreenPath.Repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the PostgreSQL search columns and indexes used by the native search queries in
+ * UserRepository. Hibernate's ddl-auto can't express generated columns or GIN indexes, so they
+ * are added here once the users table exists.
+ */
+@Slf4j
+@Component
+public class UserSearchSchema {
+
+    // Lower-cased document of every searchable column; repeated because a generated column
+    // can't reference another generated column
+    private static final String SEARCH_DOCUMENT =
+        "lower(coalesce(first_name, '') || ' ' || coalesce(last_name, '') || ' ' || " +
+        "coalesce(location, '') || ' ' || coalesce(primary_crops, '') || ' ' || coalesce(herd_type, ''))";
+
+    private static final String[] DDL = {
+        "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+        "ALTER TABLE users ADD COLUMN IF NOT EXISTS search_text TEXT GENERATED ALWAYS AS (" + SEARCH_DOCUMENT + ") STORED",
+        "ALTER TABLE users ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (" +
+            "to_tsvector('simple', " + SEARCH_DOCUMENT + ")) STORED",
+        "CREATE INDEX IF NOT EXISTS idx_users_search_vector ON users USING GIN (search_vector)",
+        "CREATE INDEX IF NOT EXISTS idx_users_search_text_trgm ON users USING GIN (search_text gin_trgm_ops)",
+        "CREATE INDEX IF NOT EXISTS idx_users_location_trgm ON users USING GIN (lower(location) gin_trgm_ops)",
+        // Crop lookups go through the user_crops catalog join, so this index only cost writes
+        "DROP INDEX IF EXISTS idx_users_primary_crops_trgm",
+        "CREATE INDEX IF NOT EXISTS idx_users_herd_type_trgm ON users USING GIN (lower(herd_type) gin_trgm_ops)"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean initializeSchema;
+
+    // Depending on the EntityManagerFactory guarantees Hibernate has already created the users table
+    public UserSearchSchema(JdbcTemplate jdbcTemplate,
+                            EntityManagerFactory entityManagerFactory,
+                            @Value("${app.search.initialize-schema:true}") boolean initializeSchema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.initializeSchema = initializeSchema;
+    }
+
+    @PostConstruct
+    void createSearchIndexes() {
+        if (!initializeSchema) {
+            return;
+        }
+        try {
+            for (String statement : DDL) {
+                jdbcTemplate.execute(statement);
+            }
+            log.info("User search columns and indexes initialized");
+        } catch (DataAccessException e) {
+            // Usually a missing CREATE EXTENSION privilege; a DBA can apply the DDL by hand
+            log.error("Failed to initialize user search schema; user search will not work until it is applied", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.GreenPath.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.GreenPath.Model.UserType;
+
+/**
+ * Set-based cleanup of expired verification codes, one bounded batch per call.
+ *
+ * Each batch locks its rows with FOR UPDATE SKIP LOCKED, so several nodes can run the cleanup
+ * at once and each takes a disjoint set of rows instead of waiting on the others. Callers run
+ * every batch in its own short transaction.
+ */
+@Repository
+public class VerificationCodeCleanup {
+
+    // Unverified users are removed together with their catalog links in one statement
+    private static final String DELETE_UNVERIFIED_BATCH_SQL =
+        "WITH batch AS (" +
+        "SELECT id FROM users WHERE is_verified = false AND verification_code_expiry < ? " +
+        "LIMIT ? FOR UPDATE SKIP LOCKED), " +
+        "crops AS (DELETE FROM user_crops WHERE user_id IN (SELECT id FROM batch)), " +
+        "livestock AS (DELETE FROM user_livestock_types WHERE user_id IN (SELECT id FROM batch)) " +
+        "DELETE FROM users u USING batch b WHERE u.id = b.id RETURNING u.id, u.user_type";
+
+    private static final String CLEAR_VERIFIED_BATCH_SQL =
+        "UPDATE users SET verification_code = NULL, verification_code_expiry = NULL WHERE id IN (" +
+        "SELECT id FROM users WHERE is_verified = true AND verification_code_expiry < ? " +
+        "LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING id";
+
+    public record DeletedUser(long id, UserType userType) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VerificationCodeCleanup(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Delete up to batchSize unverified users whose code expired before the cutoff
+    public List<DeletedUser> deleteExpiredUnverified(LocalDateTime cutoff, int batchSize) {
+        return jdbcTemplate.query(DELETE_UNVERIFIED_BATCH_SQL,
+                (rs, rowNum) -> new DeletedUser(rs.getLong("id"), UserType.valueOf(rs.getString("user_type"))),
+                Timestamp.valueOf(cutoff), batchSize);
+    }
+
+    // Clear the expired code of up to batchSize verified users; returns their ids
+    public List<Long> clearExpiredCodes(LocalDateTime cutoff, int batchSize) {
+        return jdbcTemplate.query(CLEAR_VERIFIED_BATCH_SQL,
+                (rs, rowNum) -> rs.getLong("id"),
+                Timestamp.valueOf(cutoff), batchSize);
+    }
+}
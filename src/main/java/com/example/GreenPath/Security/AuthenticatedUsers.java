@@ -0,0 +1,38 @@
+package com.example.GreenPath.Security;
+
+import java.security.Principal;
+
+import org.springframework.security.core.Authentication;
+
+import com.example.GreenPath.DTO.UserCredentials;
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Model.UserType;
+
+/**
+ * Reads the GreenPath user behind a Principal. Depending on how the login was resolved the
+ * principal is either the cached User entity or the UserCredentials projection.
+ */
+public final class AuthenticatedUsers {
+
+    private AuthenticatedUsers() {
+    }
+
+    public static Long userId(Principal principal) {
+        Object details = principal instanceof Authentication authentication ? authentication.getPrincipal() : null;
+        if (details instanceof User user) {
+            return user.getId();
+        }
+        if (details instanceof UserCredentials credentials) {
+            return credentials.id();
+        }
+        return null;
+    }
+
+    public static boolean hasRole(Principal principal, UserType userType) {
+        if (!(principal instanceof Authentication authentication)) {
+            return false;
+        }
+        String role = "ROLE_" + userType.name();
+        return authentication.getAuthorities().stream().anyMatch(authority -> role.equals(authority.getAuthority()));
+    }
+}
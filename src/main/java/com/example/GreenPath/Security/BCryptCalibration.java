@@ -0,0 +1,43 @@
+package com.example.GreenPath.Security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks the BCrypt strength for this host at startup. Each extra point of strength doubles the
+ * work, so one measurement at the minimum strength is enough to estimate the rest.
+ */
+@Slf4j
+public final class BCryptCalibration {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Sample-Passw0rd";
+    private static final int SAMPLES = 3;
+
+    private BCryptCalibration() {
+    }
+
+    // Highest strength in [minStrength, maxStrength] whose hash is expected to fit the budget
+    public static int strengthFor(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        encoder.encode(SAMPLE_PASSWORD);  // warm-up
+
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        double measuredMillis = Math.max(0.01, fastest / 1_000_000.0);
+
+        int strength = minStrength;
+        double expected = measuredMillis;
+        while (strength < maxStrength && expected * 2 <= targetMillis) {
+            expected *= 2;
+            strength++;
+        }
+        log.info("BCrypt calibrated: strength {} ({} ms at strength {}, ~{} ms expected, target {} ms)",
+                strength, String.format("%.1f", measuredMillis), minStrength, String.format("%.1f", expected), targetMillis);
+        return strength;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.GreenPath.Security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Runs password hashing and verification on a dedicated, core-sized pool.
+ *
+ * Hashing is pure CPU, so at most one hash per core runs at a time no matter how many request
+ * threads ask. The queue is bounded and a task that can't start within the wait limit is
+ * abandoned, so a login burst fails fast with PasswordHashingBusyException instead of tying
+ * up the servlet thread pool.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+
+    private final Timer encodeQueueWait;
+    private final Timer matchesQueueWait;
+    private final Timer encodeTime;
+    private final Timer matchesTime;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long maxWaitMillis, MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.delegate = delegate;
+        this.maxWaitMillis = maxWaitMillis;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeQueueWait = Timer.builder("greenpath.password.queue.wait").tag("operation", "encode").register(meterRegistry);
+        this.matchesQueueWait = Timer.builder("greenpath.password.queue.wait").tag("operation", "matches").register(meterRegistry);
+        this.encodeTime = Timer.builder("greenpath.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTime = Timer.builder("greenpath.password.hash").tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("greenpath.password.rejected")
+                .description("Hash requests refused because the hashing pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("greenpath.password.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("greenpath.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword), encodeQueueWait, encodeTime);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword), matchesQueueWait, matchesTime);
+    }
+
+    // Cheap string inspection; no need to go through the pool
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // Inferred as the bean's destroy method
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> work, Timer queueWait, Timer hashTime) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                long waited = started - submitted;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                // The caller has already given up; don't burn CPU on an answer nobody reads
+                if (TimeUnit.NANOSECONDS.toMillis(waited) > maxWaitMillis) {
+                    throw new PasswordHashingBusyException("Password hashing timed out in queue");
+                }
+                try {
+                    return work.call();
+                } finally {
+                    hashTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException("Password hashing pool is saturated", e);
+        }
+
+        try {
+            // Allow the hash itself some time on top of the queue wait
+            return future.get(maxWaitMillis * 2, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingBusyException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.GreenPath.Security;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Client IP resolution shared by the controllers and the throttling filters.
+ *
+ * Only the socket address is used: X-Forwarded-For and X-Real-IP are set by the client and
+ * can't be trusted here. Behind a proxy, server.forward-headers-strategy lets Tomcat's
+ * RemoteIpValve replace the remote address, and only for hops from its internal-proxies.
+ */
+public final class ClientAddress {
+
+    private ClientAddress() {
+    }
+
+    public static String of(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    // Address of the request bound to the current thread, or null outside a web request
+    public static String current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return of(servletAttributes.getRequest());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.GreenPath.Security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Login attempt throttling by email and by client IP, checked before any password hashing.
+ *
+ * Both keys must have a token for an attempt to go ahead: the email bucket stops a slow
+ * guess against one account from many addresses, the IP bucket stops one address spraying
+ * many accounts.
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final TokenBucketLimiter byEmail;
+    private final TokenBucketLimiter byIp;
+
+    public LoginThrottle(@Value("${app.security.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${app.security.login-throttle.email.capacity:5}") int emailCapacity,
+                         @Value("${app.security.login-throttle.email.refill-period-ms:60000}") long emailRefillPeriodMs,
+                         @Value("${app.security.login-throttle.ip.capacity:30}") int ipCapacity,
+                         @Value("${app.security.login-throttle.ip.refill-period-ms:2000}") long ipRefillPeriodMs,
+                         @Value("${app.security.login-throttle.shards:16}") int shards,
+                         @Value("${app.security.login-throttle.max-keys:100000}") int maxKeys) {
+        this.enabled = enabled;
+        this.byEmail = new TokenBucketLimiter(emailCapacity, emailRefillPeriodMs, shards, maxKeys);
+        this.byIp = new TokenBucketLimiter(ipCapacity, ipRefillPeriodMs, shards, maxKeys);
+    }
+
+    public RateLimitDecision tryAcquire(String email, String clientIp) {
+        if (!enabled) {
+            return RateLimitDecision.ALLOWED;
+        }
+        long now = System.currentTimeMillis();
+        // IP first, so a sprayed list of emails doesn't fill the email buckets
+        long ipWait = clientIp != null ? byIp.tryAcquire(clientIp, now) : 0;
+        if (ipWait > 0) {
+            return RateLimitDecision.rejectedFor(ipWait);
+        }
+        long emailWait = byEmail.tryAcquire(normalize(email), now);
+        if (emailWait > 0) {
+            return RateLimitDecision.rejectedFor(emailWait);
+        }
+        return RateLimitDecision.ALLOWED;
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.currentTimeMillis();
+        int removed = byEmail.evictIdle(now) + byIp.evictIdle(now);
+        if (removed > 0) {
+            log.debug("Evicted {} idle login throttle buckets. Remaining - Email: {}, IP: {}",
+                    removed, byEmail.size(), byIp.size());
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.GreenPath.Security;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs LoginThrottle in front of the form login, so a rejected attempt never reaches the
+ * authentication provider and its BCrypt check.
+ */
+@Slf4j
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private final LoginThrottle loginThrottle;
+    private final String loginProcessingUrl;
+    private final String usernameParameter;
+
+    public LoginThrottleFilter(LoginThrottle loginThrottle, String loginProcessingUrl, String usernameParameter) {
+        this.loginThrottle = loginThrottle;
+        this.loginProcessingUrl = loginProcessingUrl;
+        this.usernameParameter = usernameParameter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !loginProcessingUrl.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientIp = ClientAddress.of(request);
+        RateLimitDecision decision = loginThrottle.tryAcquire(request.getParameter(usernameParameter), clientIp);
+        if (!decision.allowed()) {
+            log.warn("Login throttled. IP: {}, retry after {}s", clientIp, decision.retryAfterSeconds());
+            response.setHeader("Retry-After", String.valueOf(decision.retryAfterSeconds()));
+            response.sendRedirect(request.getContextPath() + "/login?error=throttled");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.GreenPath.Security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Thrown when the password hashing executor is saturated and a hash or check is refused
+ * rather than queued indefinitely.
+ *
+ * An AuthenticationException, so when DaoAuthenticationProvider hits it (including the
+ * timing-attack check for unknown users) form login ends at the failure handler, not a 500.
+ */
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
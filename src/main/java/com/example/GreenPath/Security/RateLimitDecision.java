@@ -0,0 +1,13 @@
+package com.example.GreenPath.Security;
+
+/**
+ * Outcome of a rate limit check; retryAfterSeconds is 0 when the request may go ahead.
+ */
+public record RateLimitDecision(boolean allowed, long retryAfterSeconds) {
+
+    public static final RateLimitDecision ALLOWED = new RateLimitDecision(true, 0);
+
+    public static RateLimitDecision rejectedFor(long waitMillis) {
+        return new RateLimitDecision(false, Math.max(1, (waitMillis + 999) / 1000));
+    }
+}
@@ -7,14 +7,26 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.DelegatingAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
 import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+import org.springframework.util.ClassUtils;
 
+import com.example.GreenPath.DTO.SessionUser;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -22,6 +34,9 @@ import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.sql.DataSource;
 
@@ -30,6 +45,7 @@ import javax.sql.DataSource;
 public class SecurityConfig {
 
     private final DataSource dataSource;
+    private final LoginThrottle loginThrottle;
     
     @Value("${app.security.remember-me.key}")
     private String rememberMeKey;
@@ -37,8 +53,9 @@ public class SecurityConfig {
     @Value("${app.security.remember-me.token-validity-seconds}")
     private int rememberMeTokenValiditySeconds;
 
-    public SecurityConfig(DataSource dataSource) {
+    public SecurityConfig(DataSource dataSource, LoginThrottle loginThrottle) {
         this.dataSource = dataSource;
+        this.loginThrottle = loginThrottle;
     }
 
     @Bean
@@ -46,17 +63,22 @@ public class SecurityConfig {
         http
         .authorizeHttpRequests(authz -> authz
             // Static resources first
-            .requestMatchers("/", "/login", "/signup", "/user/signup","/css/**", "/js/**", "/images/**", "/favicon.ico","/user/verify-code","/user/resend-code","/user/cancel-registration").permitAll()
+            .requestMatchers("/", "/login", "/signup", "/user/signup","/css/**", "/js/**", "/images/**", "/favicon.ico","/user/verify-code","/user/resend-code","/user/cancel-registration","/user/verification-status").permitAll()
             // Role-based access
             .requestMatchers("/farmer/**").hasRole("FARMER")
             .requestMatchers("/herder/**").hasRole("HERDER")
             .requestMatchers("/admin/**").hasRole("ADMIN")
+            .requestMatchers("/user/admin/**").hasRole("ADMIN")
             // WebSocket endpoints
             .requestMatchers("/ws/**").authenticated()
             // All other requests require authentication
             .anyRequest().authenticated()
         )
             
+            // Reject throttled login attempts before the password is hashed
+            .addFilterBefore(new LoginThrottleFilter(loginThrottle, "/perform-login", "email"),
+                UsernamePasswordAuthenticationFilter.class)
+            
             // Form login configuration
             .formLogin(form -> form
                 .loginPage("/login")
@@ -64,7 +86,7 @@ public class SecurityConfig {
                 .usernameParameter("email")
                 .passwordParameter("password")
                 .successHandler(authenticationSuccessHandler())
-                .failureUrl("/login?error=true")
+                .failureHandler(authenticationFailureHandler())
                 .permitAll()
             )
             
@@ -114,9 +136,34 @@ public class SecurityConfig {
         return http.build();
     }
  
+    /**
+     * Hashes are stored with an {id} prefix so the algorithm or cost can change without a bulk
+     * migration: older hashes (including the unprefixed BCrypt ones from before) still verify,
+     * and are re-encoded on the next successful login because upgradeEncoding reports them.
+     * The work runs on its own bounded pool instead of the request threads.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${app.security.password-hashing.threads:0}") int threads,
+                                           @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${app.security.password-hashing.max-wait-ms:2000}") long maxWaitMs,
+                                           @Value("${app.security.password-hashing.bcrypt-strength:0}") int bcryptStrength,
+                                           @Value("${app.security.password-hashing.target-ms:100}") long targetMs,
+                                           @Value("${app.security.password-hashing.min-strength:10}") int minStrength,
+                                           @Value("${app.security.password-hashing.max-strength:14}") int maxStrength) {
+        int strength = bcryptStrength > 0 ? bcryptStrength : BCryptCalibration.strengthFor(targetMs, minStrength, maxStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(strength));
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        // Argon2 needs BouncyCastle; verify such hashes only when it is on the classpath
+        if (ClassUtils.isPresent("org.bouncycastle.crypto.params.Argon2Parameters", getClass().getClassLoader())) {
+            encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", encoders);
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(strength));
+
+        return new BoundedPasswordEncoder(delegating, threads, queueCapacity, maxWaitMs, meterRegistry);
     }
 
     @Bean
@@ -127,6 +174,15 @@ public class SecurityConfig {
         return tokenRepository;
     }
 
+    @Bean
+    public AuthenticationFailureHandler authenticationFailureHandler() {
+        // A saturated hashing pool is not a wrong password; tell the user to retry instead
+        LinkedHashMap<Class<? extends AuthenticationException>, AuthenticationFailureHandler> handlers = new LinkedHashMap<>();
+        handlers.put(PasswordHashingBusyException.class, new SimpleUrlAuthenticationFailureHandler("/login?error=busy"));
+        return new DelegatingAuthenticationFailureHandler(handlers,
+                new SimpleUrlAuthenticationFailureHandler("/login?error=true"));
+    }
+
     @Bean
     public AuthenticationSuccessHandler authenticationSuccessHandler() {
         return new CustomAuthenticationSuccessHandler();
@@ -183,6 +239,12 @@ public class SecurityConfig {
         // Store the chosen role in session for later use if needed
         HttpSession session = request.getSession();
         session.setAttribute("currentRole", chosenRole);
+        
+        // Compact principal for the page controllers; they load the full User by id
+        SessionUser sessionUser = SessionUser.fromPrincipal(authentication.getPrincipal());
+        if (sessionUser != null) {
+            session.setAttribute(SessionUser.ATTRIBUTE, sessionUser);
+        }
 
         // Redirect to target URL
         getRedirectStrategy().sendRedirect(request, response, targetUrl);
@@ -0,0 +1,51 @@
+package com.example.GreenPath.Security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-IP and per-email limits for the endpoints that send verification email
+ * (/user/signup and /user/resend-code). Both endpoints draw on the same counters.
+ */
+@Component
+public class SignupRateLimiter {
+
+    private final boolean enabled;
+    private final SlidingWindowRateLimiter byIp;
+    private final SlidingWindowRateLimiter byEmail;
+
+    public SignupRateLimiter(@Value("${app.signup.rate-limit.enabled:true}") boolean enabled,
+                             @Value("${app.signup.rate-limit.window-ms:3600000}") long windowMs,
+                             @Value("${app.signup.rate-limit.per-ip:20}") int perIp,
+                             @Value("${app.signup.rate-limit.per-email:5}") int perEmail,
+                             @Value("${app.signup.rate-limit.shards:16}") int shards,
+                             @Value("${app.signup.rate-limit.max-keys:100000}") int maxKeys) {
+        this.enabled = enabled;
+        this.byIp = new SlidingWindowRateLimiter(perIp, windowMs, shards, maxKeys);
+        this.byEmail = new SlidingWindowRateLimiter(perEmail, windowMs, shards, maxKeys);
+    }
+
+    public RateLimitDecision tryAcquire(String email, String clientIp) {
+        if (!enabled) {
+            return RateLimitDecision.ALLOWED;
+        }
+        long now = System.currentTimeMillis();
+        long ipWait = clientIp != null ? byIp.tryAcquire(clientIp, now) : 0;
+        if (ipWait > 0) {
+            return RateLimitDecision.rejectedFor(ipWait);
+        }
+        long emailWait = email != null ? byEmail.tryAcquire(email.trim().toLowerCase(), now) : 0;
+        if (emailWait > 0) {
+            return RateLimitDecision.rejectedFor(emailWait);
+        }
+        return RateLimitDecision.ALLOWED;
+    }
+
+    @Scheduled(fixedDelayString = "${app.signup.rate-limit.sweep-interval-ms:300000}")
+    public void evictIdleCounters() {
+        long now = System.currentTimeMillis();
+        byIp.evictIdle(now);
+        byEmail.evictIdle(now);
+    }
+}
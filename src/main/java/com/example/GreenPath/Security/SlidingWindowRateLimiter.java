@@ -0,0 +1,129 @@
+package com.example.GreenPath.Security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding-window request counters keyed by string, striped across shards.
+ *
+ * Uses the two-window approximation: the estimate is the current window's count plus the
+ * previous window's count weighted by how much of it still overlaps the sliding window. Each
+ * key is one AtomicLong (window index in the high 32 bits, previous and current counts in 16
+ * bits each) updated by CAS. Keys idle for two windows are dropped by evictIdle. A shard at its
+ * key limit makes room only by dropping a sampled idle key, whose estimate is zero; a key with
+ * requests still counted is never dropped, and new keys share the shard's overflow counter until
+ * one goes idle, as in TokenBucketLimiter.
+ */
+final class SlidingWindowRateLimiter {
+
+    private static final long COUNT_MASK = 0xFFFF;
+    private static final int EVICTION_SAMPLE = 16;
+
+    private final int limit;
+    private final long windowMillis;
+    private final int maxKeysPerShard;
+    private final ConcurrentHashMap<String, AtomicLong>[] shards;
+    private final AtomicLong[] overflow;
+    private final long baseMillis;
+
+    SlidingWindowRateLimiter(int limit, long windowMillis, int shardCount, int maxKeys) {
+        this(limit, windowMillis, shardCount, maxKeys, System.currentTimeMillis());
+    }
+
+    // Windows are counted from baseMillis; tests pass a fixed base to line windows up
+    @SuppressWarnings("unchecked")
+    SlidingWindowRateLimiter(int limit, long windowMillis, int shardCount, int maxKeys, long baseMillis) {
+        if (limit < 1 || limit >= COUNT_MASK) {
+            throw new IllegalArgumentException("Rate limit must be between 1 and " + (COUNT_MASK - 1));
+        }
+        int shardsPowerOfTwo = shardCount <= 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        this.limit = limit;
+        this.baseMillis = baseMillis;
+        this.windowMillis = Math.max(1000, windowMillis);
+        this.maxKeysPerShard = Math.max(1, maxKeys / shardsPowerOfTwo);
+        this.shards = new ConcurrentHashMap[shardsPowerOfTwo];
+        this.overflow = new AtomicLong[shardsPowerOfTwo];
+        for (int i = 0; i < shardsPowerOfTwo; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+            overflow[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * Count one request for the key. Returns 0 when it is within the limit, otherwise the
+     * milliseconds until the current window ends (an upper bound on the wait).
+     */
+    long tryAcquire(String key, long nowMillis) {
+        long now = Math.max(0, nowMillis - baseMillis);
+        long window = now / windowMillis;
+        double remainingShare = 1.0 - (double) (now % windowMillis) / windowMillis;
+        AtomicLong counter = counterFor(key, window);
+        while (true) {
+            long state = counter.get();
+            long stateWindow = state >>> 32;
+            long previous = (state >>> 16) & COUNT_MASK;
+            long current = state & COUNT_MASK;
+            if (stateWindow != window) {
+                previous = stateWindow == window - 1 ? current : 0;
+                current = 0;
+            }
+            if (previous * remainingShare + current + 1 > limit) {
+                return Math.max(1, (window + 1) * windowMillis - now);
+            }
+            long next = (window << 32) | (previous << 16) | (current + 1);
+            if (counter.compareAndSet(state, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Drop keys with no requests in the current or previous window
+    int evictIdle(long nowMillis) {
+        long window = Math.max(0, nowMillis - baseMillis) / windowMillis;
+        int removed = 0;
+        for (ConcurrentHashMap<String, AtomicLong> shard : shards) {
+            int before = shard.size();
+            shard.values().removeIf(counter -> (counter.get() >>> 32) < window - 1);
+            removed += before - shard.size();
+        }
+        return removed;
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    private AtomicLong counterFor(String key, long window) {
+        int hash = key.hashCode();
+        int index = (hash ^ (hash >>> 16)) & (shards.length - 1);
+        ConcurrentHashMap<String, AtomicLong> shard = shards[index];
+        AtomicLong counter = shard.get(key);
+        if (counter != null) {
+            return counter;
+        }
+        if (shard.size() >= maxKeysPerShard && !evictIdleKey(shard, window)) {
+            return overflow[index];
+        }
+        // Starts in the current window so a new key isn't mistaken for an idle one
+        return shard.computeIfAbsent(key, k -> new AtomicLong(window << 32));
+    }
+
+    // Drop one sampled key with nothing counted in the current or previous window; false when the sample has none
+    private boolean evictIdleKey(ConcurrentHashMap<String, AtomicLong> shard, long window) {
+        int sampled = 0;
+        for (Map.Entry<String, AtomicLong> entry : shard.entrySet()) {
+            if ((entry.getValue().get() >>> 32) < window - 1 && shard.remove(entry.getKey(), entry.getValue())) {
+                return true;
+            }
+            if (++sampled >= EVICTION_SAMPLE) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.GreenPath.Security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token buckets keyed by string, striped across shards.
+ *
+ * Each bucket is one AtomicLong packing the last refill time (high 40 bits, ms since the
+ * limiter started) and the balance in milli-tokens (low 24 bits), updated by CAS. Buckets that
+ * have refilled to capacity are indistinguishable from new ones and are dropped by evictIdle.
+ * A shard that reaches its key limit makes room by dropping a full bucket from a small sample
+ * of its keys. A bucket that still holds back requests is never dropped, since that would reset
+ * its limit; when the sample has no full bucket the new key shares the shard's overflow bucket,
+ * so a flood of fresh keys is throttled as a group until the sweep frees space.
+ */
+final class TokenBucketLimiter {
+
+    private static final long MILLI = 1000;
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final int EVICTION_SAMPLE = 16;
+
+    private final long capacity;
+    private final double refillPerMilli;
+    private final int maxKeysPerShard;
+    private final ConcurrentHashMap<String, AtomicLong>[] shards;
+    private final AtomicLong[] overflow;
+    private final long baseMillis = System.currentTimeMillis();
+
+    @SuppressWarnings("unchecked")
+    TokenBucketLimiter(int capacity, long refillPeriodMillis, int shardCount, int maxKeys) {
+        if (capacity < 1 || capacity * MILLI > TOKEN_MASK) {
+            throw new IllegalArgumentException("Bucket capacity must be between 1 and " + TOKEN_MASK / MILLI);
+        }
+        int shardsPowerOfTwo = shardCount <= 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        this.capacity = capacity * MILLI;
+        this.refillPerMilli = (double) MILLI / Math.max(1, refillPeriodMillis);
+        this.maxKeysPerShard = Math.max(1, maxKeys / shardsPowerOfTwo);
+        this.shards = new ConcurrentHashMap[shardsPowerOfTwo];
+        this.overflow = new AtomicLong[shardsPowerOfTwo];
+        long full = pack(0, this.capacity);
+        for (int i = 0; i < shardsPowerOfTwo; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+            overflow[i] = new AtomicLong(full);
+        }
+    }
+
+    /**
+     * Take one token for the key. Returns 0 when granted, otherwise the milliseconds until a
+     * token will be available.
+     */
+    long tryAcquire(String key, long nowMillis) {
+        long now = Math.max(0, nowMillis - baseMillis);
+        AtomicLong bucket = bucketFor(key, now);
+        while (true) {
+            long state = bucket.get();
+            long last = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+            long elapsed = Math.max(0, now - last);
+            long added = (long) (elapsed * refillPerMilli);
+            long balance = Math.min(capacity, tokens + added);
+            if (balance < MILLI) {
+                return (long) Math.ceil((MILLI - balance) / refillPerMilli);
+            }
+            // Only move the clock forward by the time actually converted into tokens, so
+            // frequent calls don't lose fractional refills
+            long refillTime = balance == capacity ? now : last + (long) (added / refillPerMilli);
+            if (bucket.compareAndSet(state, pack(refillTime, balance - MILLI))) {
+                return 0;
+            }
+        }
+    }
+
+    // Drop buckets that have refilled completely; returns how many were removed
+    int evictIdle(long nowMillis) {
+        long now = Math.max(0, nowMillis - baseMillis);
+        int removed = 0;
+        for (ConcurrentHashMap<String, AtomicLong> shard : shards) {
+            int before = shard.size();
+            shard.values().removeIf(bucket -> isFull(bucket.get(), now));
+            removed += before - shard.size();
+        }
+        return removed;
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    private AtomicLong bucketFor(String key, long now) {
+        int hash = key.hashCode();
+        int index = (hash ^ (hash >>> 16)) & (shards.length - 1);
+        ConcurrentHashMap<String, AtomicLong> shard = shards[index];
+        AtomicLong bucket = shard.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (shard.size() >= maxKeysPerShard && !evictFullBucket(shard, now)) {
+            return overflow[index];
+        }
+        return shard.computeIfAbsent(key, k -> new AtomicLong(pack(now, capacity)));
+    }
+
+    // Drop one sampled bucket that has refilled completely; false when the sample has none
+    private boolean evictFullBucket(ConcurrentHashMap<String, AtomicLong> shard, long now) {
+        int sampled = 0;
+        for (Map.Entry<String, AtomicLong> entry : shard.entrySet()) {
+            if (isFull(entry.getValue().get(), now) && shard.remove(entry.getKey(), entry.getValue())) {
+                return true;
+            }
+            if (++sampled >= EVICTION_SAMPLE) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private boolean isFull(long state, long now) {
+        long last = state >>> TOKEN_BITS;
+        long tokens = state & TOKEN_MASK;
+        return tokens + (long) (Math.max(0, now - last) * refillPerMilli) >= capacity;
+    }
+
+    private static long pack(long time, long tokens) {
+        return (time << TOKEN_BITS) | tokens;
+    }
+}
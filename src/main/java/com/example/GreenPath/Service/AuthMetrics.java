@@ -0,0 +1,124 @@
+package com.example.GreenPath.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.example.GreenPath.Logging.RequestSummaryLog;
+import com.example.GreenPath.Model.UserType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latency and failure metrics for the signup, verification and login paths.
+ *
+ * Every request records one greenpath.auth.requests timer tagged with operation, user_type and
+ * outcome (success, rejected for client errors, error for server-side failures); rejected and
+ * error outcomes also count greenpath.auth.failures by reason. Percentiles and histograms are
+ * configured under management.metrics.distribution. The same stop point writes the request's
+ * one summary log event through RequestSummaryLog.
+ */
+@Component
+public class AuthMetrics {
+
+    public enum Operation {
+        SIGNUP, VERIFY, RESEND, LOGIN;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final RequestSummaryLog summaryLog;
+
+    public AuthMetrics(MeterRegistry meterRegistry, PendingSignupStore pendingSignupStore, RequestSummaryLog summaryLog) {
+        this.meterRegistry = meterRegistry;
+        this.summaryLog = summaryLog;
+        // Read on scrape only; the jdbc store answers with a COUNT over a small unlogged table
+        Gauge.builder("greenpath.signup.pending", pendingSignupStore, PendingSignupStore::size)
+                .description("Registrations waiting for email verification")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    public Observation start(Operation operation) {
+        return new Observation(operation, Timer.start(meterRegistry));
+    }
+
+    /**
+     * One timed request. The first call to success, rejected or failed records it; later calls
+     * are ignored, so a finally block can safely fall back to failed.
+     */
+    public final class Observation {
+
+        private final Operation operation;
+        private final Timer.Sample sample;
+        private UserType userType;
+        private final Map<String, String> fields = new LinkedHashMap<>(8);
+        private boolean stopped;
+
+        private Observation(Operation operation, Timer.Sample sample) {
+            this.operation = operation;
+            this.sample = sample;
+        }
+
+        public Observation userType(UserType userType) {
+            this.userType = userType;
+            return this;
+        }
+
+        // Extra field for the summary log event; callers pass values already masked
+        public Observation field(String name, String value) {
+            fields.put(name, value);
+            return this;
+        }
+
+        public void success() {
+            stop("success", null, null);
+        }
+
+        // The client sent something we refuse: bad input, wrong code, throttled
+        public void rejected(String reason) {
+            stop("rejected", reason, null);
+        }
+
+        // We could not serve a valid request: saturation, infrastructure or unexpected errors
+        public void failed(String reason) {
+            stop("error", reason, null);
+        }
+
+        public void failed(String reason, Throwable error) {
+            stop("error", reason, error);
+        }
+
+        private void stop(String outcome, String reason, Throwable error) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            String userTypeTag = userType != null ? userType.name().toLowerCase() : UNKNOWN;
+            long durationNanos = sample.stop(Timer.builder("greenpath.auth.requests")
+                    .description("Signup, verification and login latency")
+                    .tag("operation", operation.tag)
+                    .tag("user_type", userTypeTag)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            if (reason != null) {
+                Counter.builder("greenpath.auth.failures")
+                        .tag("operation", operation.tag)
+                        .tag("user_type", userTypeTag)
+                        .tag("reason", reason)
+                        .register(meterRegistry)
+                        .increment();
+            }
+            summaryLog.emit(operation.tag, outcome, userTypeTag, reason,
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), fields, error);
+        }
+    }
+}
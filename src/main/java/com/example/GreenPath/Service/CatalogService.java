@@ -0,0 +1,113 @@
+package com.example.GreenPath.Service;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.GreenPath.Model.Crop;
+import com.example.GreenPath.Model.LivestockType;
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Repository.CropRepository;
+import com.example.GreenPath.Repository.LivestockTypeRepository;
+import com.example.GreenPath.Repository.UserRepository;
+
+/**
+ * Maps the free-text crop and herd fields onto the normalized catalogs, and answers
+ * "farmers growing X" / "herders keeping Y" through the indexed link tables.
+ */
+@Service
+@Transactional
+public class CatalogService {
+
+    // Same separators the startup migration splits on (see CatalogMigration)
+    private static final Pattern SEPARATORS = Pattern.compile("[,;/|]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Autowired
+    private CropRepository cropRepository;
+
+    @Autowired
+    private LivestockTypeRepository livestockTypeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Resolve "Maize, Cassava" to catalog entries, creating any that don't exist yet
+    public Set<Crop> resolveCrops(String primaryCrops) {
+        Set<String> names = parseNames(primaryCrops);
+        if (names.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<Crop> crops = cropRepository.findByNameIn(names);
+        if (crops.size() < names.size()) {
+            // Insert the missing names, tolerating another request inserting them first, then read them all back
+            Set<String> missing = new HashSet<>(names);
+            crops.forEach(crop -> missing.remove(crop.getName()));
+            missing.forEach(cropRepository::insertIfAbsent);
+            crops = cropRepository.findByNameIn(names);
+        }
+        return new HashSet<>(crops);
+    }
+
+    // Resolve "Cattle / Goats" to catalog entries, creating any that don't exist yet
+    public Set<LivestockType> resolveLivestockTypes(String herdType) {
+        Set<String> names = parseNames(herdType);
+        if (names.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<LivestockType> types = livestockTypeRepository.findByNameIn(names);
+        if (types.size() < names.size()) {
+            Set<String> missing = new HashSet<>(names);
+            types.forEach(type -> missing.remove(type.getName()));
+            missing.forEach(livestockTypeRepository::insertIfAbsent);
+            types = livestockTypeRepository.findByNameIn(names);
+        }
+        return new HashSet<>(types);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<User> findFarmersGrowing(String crop, Pageable pageable) {
+        return userRepository.findFarmersByCropType(normalizeName(crop), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<User> findHerdersKeeping(String livestockType, Pageable pageable) {
+        return userRepository.findHerdersByLivestockType(normalizeName(livestockType), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Crop> getAllCrops() {
+        return cropRepository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public List<LivestockType> getAllLivestockTypes() {
+        return livestockTypeRepository.findAll();
+    }
+
+    static Set<String> parseNames(String value) {
+        Set<String> names = new LinkedHashSet<>();
+        if (value == null) {
+            return names;
+        }
+        for (String part : SEPARATORS.split(value)) {
+            String name = normalizeName(part);
+            if (!name.isEmpty()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    static String normalizeName(String value) {
+        return value == null ? "" : WHITESPACE.matcher(value.trim().toLowerCase()).replaceAll(" ");
+    }
+}
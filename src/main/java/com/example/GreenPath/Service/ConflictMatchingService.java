@@ -0,0 +1,252 @@
+package com.example.GreenPath.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.GreenPath.DTO.ConflictPair;
+import com.example.GreenPath.DTO.ConflictZoneReport;
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Model.UserType;
+import com.example.GreenPath.Repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Farmer-herder matching over an in-memory ProximityGrid.
+ *
+ * The grid is loaded once the application is ready and kept current by userService after each
+ * committed write. The conflict report splits the farms across a fork-join pool; each task
+ * probes only the grid cells around its farms, so a full sweep needs no database queries.
+ * Every task keeps only its closest maxReportPairs pairs, so a dense sweep can't hold all of
+ * its pairs in memory at once.
+ */
+@Slf4j
+@Service
+public class ConflictMatchingService {
+
+    private static final int FARMS_PER_TASK = 512;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ProximityGrid grid;
+    private final ForkJoinPool pool;
+    private final double maxGrazingRadiusKm;
+    private final int maxReportPairs;
+
+    private volatile boolean loaded;
+
+    public ConflictMatchingService(UserRepository userRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.matching.cell-size-km:10}") double cellSizeKm,
+                                   @Value("${app.matching.parallelism:0}") int parallelism,
+                                   @Value("${app.matching.max-report-pairs:100000}") int maxReportPairs,
+                                   @Value("${app.geo.max-grazing-radius-km:50}") double maxGrazingRadiusKm) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.grid = new ProximityGrid(cellSizeKm);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxReportPairs = maxReportPairs;
+        this.maxGrazingRadiusKm = maxGrazingRadiusKm;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadGrid() {
+        long startTime = System.currentTimeMillis();
+        grid.clear();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<UserRepository.UserLocationView> locations = userRepository.streamLocations()) {
+                locations.forEach(location -> index(location.getId(), location.getUserType(),
+                        location.getFarmLatitude(), location.getFarmLongitude(),
+                        location.getGrazingLatitude(), location.getGrazingLongitude(), location.getGrazingRadiusKm()));
+            }
+        });
+        loaded = true;
+        log.info("Proximity grid loaded with {} locations in {}ms", grid.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Re-index a user once the surrounding transaction commits, so a rolled-back update never
+     * reaches the grid. The values are captured now, before the entity can change again.
+     */
+    public void userChanged(User user) {
+        Long id = user.getId();
+        UserType userType = user.getUserType();
+        Double farmLatitude = user.getFarmLatitude();
+        Double farmLongitude = user.getFarmLongitude();
+        Double grazingLatitude = user.getGrazingLatitude();
+        Double grazingLongitude = user.getGrazingLongitude();
+        Double grazingRadiusKm = user.getGrazingRadiusKm();
+        afterCommit(() -> {
+            grid.remove(id);
+            index(id, userType, farmLatitude, farmLongitude, grazingLatitude, grazingLongitude, grazingRadiusKm);
+        });
+    }
+
+    public void userDeleted(Long userId) {
+        afterCommit(() -> grid.remove(userId));
+    }
+
+    // Drop a batch of deleted users from the grid with one callback once the transaction commits
+    public void usersDeleted(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        afterCommit(() -> ids.forEach(grid::remove));
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Every farm within bufferKm of a grazing area, closest first
+    public ConflictZoneReport buildConflictReport(double bufferKm) {
+        long startTime = System.currentTimeMillis();
+        List<ProximityGrid.Entry> farms = grid.entries(UserType.FARMER);
+        int herders = grid.entries(UserType.HERDER).size();
+
+        SweepResult result = pool.invoke(new FarmSweep(farms, 0, farms.size(), bufferKm));
+        List<ConflictPair> pairs = result.closest();
+        long totalPairs = result.total();
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        log.info("Conflict report: {} farms, {} herders, {} pairs within {} km in {}ms",
+                farms.size(), herders, totalPairs, bufferKm, elapsed);
+        return new ConflictZoneReport(Instant.now(), bufferKm, farms.size(), herders, totalPairs, pairs, elapsed);
+    }
+
+    // Grazing areas within bufferKm of a single farm
+    public List<ConflictPair> findConflictsForFarm(long farmerId, double latitude, double longitude, double bufferKm) {
+        List<ConflictPair> pairs = new ArrayList<>();
+        collectConflicts(new ProximityGrid.Entry(farmerId, UserType.FARMER, latitude, longitude, 0), bufferKm, pairs);
+        pairs.sort(Comparator.comparingDouble(ConflictPair::distanceKm));
+        return pairs;
+    }
+
+    // Farms within bufferKm of a herder's current position
+    public List<ConflictPair> findFarmsNearHerder(long herderId, double latitude, double longitude, double bufferKm) {
+        List<ConflictPair> pairs = new ArrayList<>();
+        grid.forEachCandidate(latitude, longitude, bufferKm, candidate -> {
+            if (candidate.userType() != UserType.FARMER) {
+                return;
+            }
+            double distance = GeoMath.haversineKm(latitude, longitude, candidate.latitude(), candidate.longitude());
+            if (distance <= bufferKm) {
+                pairs.add(new ConflictPair(candidate.userId(), herderId, distance));
+            }
+        });
+        pairs.sort(Comparator.comparingDouble(ConflictPair::distanceKm));
+        return pairs;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void collectConflicts(ProximityGrid.Entry farm, double bufferKm, List<ConflictPair> out) {
+        grid.forEachCandidate(farm.latitude(), farm.longitude(), bufferKm + maxGrazingRadiusKm, candidate -> {
+            if (candidate.userType() != UserType.HERDER) {
+                return;
+            }
+            double centre = GeoMath.haversineKm(farm.latitude(), farm.longitude(), candidate.latitude(), candidate.longitude());
+            double distance = Math.max(0, centre - candidate.radiusKm());
+            if (distance <= bufferKm) {
+                out.add(new ConflictPair(farm.userId(), candidate.userId(), distance));
+            }
+        });
+    }
+
+    private void index(Long id, UserType userType, Double farmLatitude, Double farmLongitude,
+                       Double grazingLatitude, Double grazingLongitude, Double grazingRadiusKm) {
+        if (userType == UserType.FARMER && GeoMath.isValid(farmLatitude, farmLongitude)) {
+            grid.put(new ProximityGrid.Entry(id, UserType.FARMER, farmLatitude, farmLongitude, 0));
+        } else if (userType == UserType.HERDER && GeoMath.isValid(grazingLatitude, grazingLongitude)) {
+            double radius = grazingRadiusKm == null || grazingRadiusKm < 0 ? 0 : Math.min(grazingRadiusKm, maxGrazingRadiusKm);
+            grid.put(new ProximityGrid.Entry(id, UserType.HERDER, grazingLatitude, grazingLongitude, radius));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Merge two lists sorted closest first, keeping at most limit pairs
+    static List<ConflictPair> mergeClosest(List<ConflictPair> left, List<ConflictPair> right, int limit) {
+        List<ConflictPair> merged = new ArrayList<>(Math.min(limit, left.size() + right.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < left.size() || j < right.size())) {
+            if (j >= right.size() || (i < left.size() && left.get(i).distanceKm() <= right.get(j).distanceKm())) {
+                merged.add(left.get(i++));
+            } else {
+                merged.add(right.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    // Closest pairs found by a sweep, plus how many pairs it found in total
+    private record SweepResult(List<ConflictPair> closest, long total) {
+    }
+
+    // Splits the farm list in halves until a slice is small enough to sweep directly
+    private final class FarmSweep extends RecursiveTask<SweepResult> {
+
+        private final List<ProximityGrid.Entry> farms;
+        private final int from;
+        private final int to;
+        private final double bufferKm;
+
+        FarmSweep(List<ProximityGrid.Entry> farms, int from, int to, double bufferKm) {
+            this.farms = farms;
+            this.from = from;
+            this.to = to;
+            this.bufferKm = bufferKm;
+        }
+
+        @Override
+        protected SweepResult compute() {
+            if (to - from <= FARMS_PER_TASK) {
+                List<ConflictPair> pairs = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    collectConflicts(farms.get(i), bufferKm, pairs);
+                }
+                pairs.sort(Comparator.comparingDouble(ConflictPair::distanceKm));
+                List<ConflictPair> closest = pairs.size() > maxReportPairs
+                        ? new ArrayList<>(pairs.subList(0, maxReportPairs)) : pairs;
+                return new SweepResult(closest, pairs.size());
+            }
+            int middle = (from + to) >>> 1;
+            FarmSweep left = new FarmSweep(farms, from, middle, bufferKm);
+            left.fork();
+            SweepResult right = new FarmSweep(farms, middle, to, bufferKm).compute();
+            SweepResult leftResult = left.join();
+            return new SweepResult(mergeClosest(leftResult.closest(), right.closest(), maxReportPairs),
+                    leftResult.total() + right.total());
+        }
+    }
+}
@@ -1,75 +1,178 @@
 package com.example.GreenPath.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service
 public class EmailService {
 
+    private static final InternetAddress FROM_ADDRESS = fromAddress("noreply@xchange.com");
+
     @Autowired
     private JavaMailSender mailSender;
 
-    public void sendVerificationEmail(String to, String code) throws MessagingException {
-        log.info("Preparing to send verification email to: {}", to);
-        
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            
-            helper.setTo(to);
-            helper.setSubject("Your XChange Email Verification Code");
-            helper.setFrom("noreply@xchange.com"); // Add this line
-            
-            String htmlContent = 
-                "<div style='font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #e0e0e0; border-radius: 10px;'>" +
-                "<h2 style='color: #4CAF50;'>Green-Path Email Verification</h2>" +
-                "<p>Thank you for registering with Green-Path. Please use the verification code below to complete your registration:</p>" +
-                "<div style='background-color: #f5f5f5; padding: 15px; border-radius: 8px; text-align: center; margin: 20px 0;'>" +
-                "<h1 style='font-size: 36px; letter-spacing: 5px; margin: 0; color: #333;'>" + code + "</h1>" +
-                "</div>" +
-                "<p>This code will expire in 3 minutes.</p>" +
-                "<p>If you didn't request this code, please ignore this email.</p>" +
-                "<p>Thank you,<br>Green-Path Team</p>" +
-                "</div>";
-                
-            helper.setText(htmlContent, true);
-            
-            mailSender.send(message);
-            log.info("Verification email sent successfully to: {}", to);
-        } catch (MessagingException e) {
-            log.error("Failed to send verification email to: " + to, e);
-            throw new MessagingException("Failed to send verification email: " + e.getMessage());
+    @Autowired
+    private EmailTemplateService emailTemplateService;
+
+    // Only present when app.mail.transport.pooled=true
+    @Autowired(required = false)
+    private SmtpTransportPool transportPool;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Send a batch of verification emails over a single SMTP connection.
+     * Returns the recipients whose message could not be sent.
+     */
+    public Set<String> sendVerificationEmails(Map<String, String> codesByRecipient) throws InterruptedException {
+        Set<String> failedRecipients = new HashSet<>();
+        Map<MimeMessage, String> recipients = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(codesByRecipient.size());
+
+        for (Map.Entry<String, String> entry : codesByRecipient.entrySet()) {
+            try {
+                MimeMessage message = createVerificationMessage(entry.getKey(), entry.getValue());
+                recipients.put(message, entry.getKey());
+                messages.add(message);
+            } catch (MessagingException e) {
+                log.error("Failed to build verification email for: {}", entry.getKey(), e);
+                failedRecipients.add(entry.getKey());
+            }
+        }
+        if (messages.isEmpty()) {
+            return failedRecipients;
         }
+
+        int buildFailures = failedRecipients.size();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        if (transportPool != null) {
+            for (MimeMessage failed : transportPool.sendAll(messages)) {
+                failedRecipients.add(recipients.get(failed));
+            }
+        } else {
+            try {
+                // JavaMailSender reuses one connection for all messages passed in a single call
+                mailSender.send(messages.toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                log.warn("Batch send partially failed: {}", e.getMessage());
+                for (Object failed : e.getFailedMessages().keySet()) {
+                    String recipient = recipients.get(failed);
+                    if (recipient != null) {
+                        failedRecipients.add(recipient);
+                    }
+                }
+            } catch (MailException e) {
+                log.error("Batch send failed", e);
+                failedRecipients.addAll(recipients.values());
+            }
+        }
+
+        recordSmtpSend(sample, messages.size(), failedRecipients.size() - buildFailures);
+
+        log.info("Verification batch sent. Messages: {}, Failed: {}", codesByRecipient.size(), failedRecipients.size());
+        return failedRecipients;
     }
+
     public void reset_password(){
         
     }
     public void sendEmail(String to, String subject, String content) throws MessagingException {
+        sendEmail(to, subject, content, false);
+    }
+
+    public void sendEmail(String to, String subject, String content, boolean html) throws MessagingException {
         log.info("Preparing to send email to: {}", to);
         
         try {
             MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+            MimeMessageHelper helper = new MimeMessageHelper(message, html);
             
             helper.setTo(to);
             helper.setSubject(subject);
-            helper.setFrom("noreply@xchange.com");
-            
-            // Check if content is HTML
-            boolean isHtml = content.contains("<") && content.contains(">");
-            helper.setText(content, isHtml);
+            helper.setFrom(FROM_ADDRESS);
+            helper.setText(content, html);
             
-            mailSender.send(message);
+            deliver(message);
             log.info("Email sent successfully to: {}", to);
         } catch (MessagingException e) {
             log.error("Failed to send email to: " + to, e);
             throw new MessagingException("Failed to send email: " + e.getMessage());
         }
     }
+
+    private MimeMessage createVerificationMessage(String to, String code) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setTo(to);
+        helper.setSubject(EmailTemplateService.VERIFICATION_SUBJECT);
+        helper.setFrom(FROM_ADDRESS);
+
+        // Bodies come from templates compiled at startup; only the code is substituted here
+        helper.setText(emailTemplateService.verificationText(code), emailTemplateService.verificationHtml(code));
+        return message;
+    }
+
+    private static InternetAddress fromAddress(String address) {
+        try {
+            return new InternetAddress(address);
+        } catch (MessagingException e) {
+            throw new IllegalStateException("Invalid sender address: " + address, e);
+        }
+    }
+
+    // Send one message, through the connection pool when it is enabled
+    private void deliver(MimeMessage message) throws MessagingException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean sent = false;
+        try {
+            if (transportPool == null) {
+                mailSender.send(message);
+            } else if (!transportPool.sendAll(List.of(message)).isEmpty()) {
+                throw new MessagingException("Pooled SMTP send failed");
+            }
+            sent = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection");
+        } finally {
+            recordSmtpSend(sample, 1, sent ? 0 : 1);
+        }
+    }
+
+    // One timer sample per SMTP call (a batch shares a connection), plus per-message outcome counts
+    private void recordSmtpSend(Timer.Sample sample, int messages, int failed) {
+        String outcome = failed == 0 ? "success" : failed < messages ? "partial" : "failure";
+        sample.stop(Timer.builder("greenpath.mail.smtp.send")
+                .description("SMTP send latency per call")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        Counter.builder("greenpath.mail.messages").tag("outcome", "sent").register(meterRegistry)
+                .increment(messages - failed);
+        if (failed > 0) {
+            Counter.builder("greenpath.mail.messages").tag("outcome", "failed").register(meterRegistry)
+                    .increment(failed);
+        }
+    }
 }
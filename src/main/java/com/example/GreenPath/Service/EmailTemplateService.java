@@ -0,0 +1,85 @@
+package com.example.GreenPath.Service;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Renders the verification email templates once at startup.
+ *
+ * Templates are processed with a placeholder in place of the code and split around it, so a
+ * send only concatenates the cached fragments with the code instead of running Thymeleaf.
+ */
+@Slf4j
+@Service
+public class EmailTemplateService {
+
+    public static final String VERIFICATION_SUBJECT = "Your XChange Email Verification Code";
+
+    private static final String CODE_PLACEHOLDER = "GREENPATHVERIFICATIONCODE";
+
+    // Template with everything rendered except the verification code
+    private record CompiledTemplate(String prefix, String suffix) {
+
+        String render(String code) {
+            return new StringBuilder(prefix.length() + code.length() + suffix.length())
+                .append(prefix).append(code).append(suffix).toString();
+        }
+    }
+
+    @Value("${app.cleanup.pending-user-expiry-minutes:15}")
+    private int expiryMinutes;
+
+    private CompiledTemplate verificationHtml;
+    private CompiledTemplate verificationText;
+
+    @PostConstruct
+    void compileTemplates() {
+        TemplateEngine engine = new TemplateEngine();
+        engine.addTemplateResolver(resolver(TemplateMode.HTML, "*.html", 1));
+        engine.addTemplateResolver(resolver(TemplateMode.TEXT, "*.txt", 2));
+
+        Context context = new Context();
+        context.setVariable("code", CODE_PLACEHOLDER);
+        context.setVariable("expiryMinutes", expiryMinutes);
+
+        verificationHtml = compile(engine.process("verification.html", context), "verification.html");
+        verificationText = compile(engine.process("verification.txt", context), "verification.txt");
+        log.info("Email templates compiled");
+    }
+
+    public String verificationHtml(String code) {
+        return verificationHtml.render(code);
+    }
+
+    public String verificationText(String code) {
+        return verificationText.render(code);
+    }
+
+    private static ClassLoaderTemplateResolver resolver(TemplateMode mode, String pattern, int order) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/email/");
+        resolver.setTemplateMode(mode);
+        resolver.setResolvablePatterns(Set.of(pattern));
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(false); // Rendered once, the result is what we keep
+        resolver.setOrder(order);
+        return resolver;
+    }
+
+    private static CompiledTemplate compile(String rendered, String name) {
+        int index = rendered.indexOf(CODE_PLACEHOLDER);
+        if (index < 0 || rendered.indexOf(CODE_PLACEHOLDER, index + 1) >= 0) {
+            throw new IllegalStateException("Email template " + name + " must contain the code exactly once");
+        }
+        return new CompiledTemplate(rendered.substring(0, index), rendered.substring(index + CODE_PLACEHOLDER.length()));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.GreenPath.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.GreenPath.DTO.ConflictPair;
+import com.example.GreenPath.DTO.HerderPosition;
+import com.example.GreenPath.DTO.ProximityAlert;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Turns herder position reports into route broadcasts and farmer proximity alerts.
+ *
+ * Reports are sharded by herder id. Each shard keeps only the latest position per herder and
+ * is flushed by its own thread on a fixed interval, so a herder sending ten updates a second
+ * costs one broadcast per interval and publishers never wait on delivery. A farmer is alerted
+ * when a herder enters the alert radius, not on every update while the herder stays there.
+ */
+@Slf4j
+@Service
+public class GrazingAlertService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ConflictMatchingService conflictMatchingService;
+    private final String brokerPrefix;
+    private final double alertRadiusKm;
+
+    private final List<Map<Long, HerderPosition>> pendingPositions;
+    // Farms each herder is currently near; only touched by the herder's shard thread
+    private final Map<Long, Set<Long>> alertedFarms = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public GrazingAlertService(SimpMessagingTemplate messagingTemplate,
+                               ConflictMatchingService conflictMatchingService,
+                               @Value("${app.websocket.broker-prefix:/topic}") String brokerPrefix,
+                               @Value("${app.websocket.alerts.shards:4}") int shards,
+                               @Value("${app.websocket.alerts.coalesce-interval-ms:1000}") long coalesceIntervalMs,
+                               @Value("${app.websocket.alerts.alert-radius-km:5}") double alertRadiusKm) {
+        this.messagingTemplate = messagingTemplate;
+        this.conflictMatchingService = conflictMatchingService;
+        this.brokerPrefix = brokerPrefix;
+        this.alertRadiusKm = alertRadiusKm;
+
+        int shardCount = Math.max(1, shards);
+        this.pendingPositions = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            pendingPositions.add(new ConcurrentHashMap<>());
+        }
+        this.flusher = Executors.newScheduledThreadPool(shardCount,
+                Thread.ofPlatform().name("grazing-shard-", 0).daemon().factory());
+        for (int i = 0; i < shardCount; i++) {
+            int shard = i;
+            flusher.scheduleWithFixedDelay(() -> flushShard(shard), coalesceIntervalMs, coalesceIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Record a herder's position; delivery happens on the next flush of its shard
+    public void publishPosition(long herderId, double latitude, double longitude) {
+        HerderPosition position = new HerderPosition(herderId, latitude, longitude, System.currentTimeMillis());
+        pendingPositions.get(shardFor(herderId)).put(herderId, position);
+    }
+
+    public String routeDestination(long herderId) {
+        return brokerPrefix + "/herders/" + herderId + "/position";
+    }
+
+    public String alertDestination(long farmerId) {
+        return brokerPrefix + "/farmers/" + farmerId + "/alerts";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdownNow();
+    }
+
+    private void flushShard(int shard) {
+        Map<Long, HerderPosition> pending = pendingPositions.get(shard);
+        for (Long herderId : pending.keySet()) {
+            HerderPosition position = pending.remove(herderId);
+            if (position == null) {
+                continue;
+            }
+            try {
+                deliver(position);
+            } catch (MessagingException e) {
+                log.warn("Failed to deliver position for herder {}: {}", herderId, e.getMessage());
+            } catch (RuntimeException e) {
+                // Never let one bad update cancel the shard's scheduled flush
+                log.error("Unexpected error delivering position for herder {}", herderId, e);
+            }
+        }
+    }
+
+    private void deliver(HerderPosition position) {
+        long herderId = position.herderId();
+        messagingTemplate.convertAndSend(routeDestination(herderId), position);
+
+        List<ConflictPair> nearby = conflictMatchingService.findFarmsNearHerder(
+                herderId, position.latitude(), position.longitude(), alertRadiusKm);
+        Set<Long> previous = alertedFarms.getOrDefault(herderId, Set.of());
+        Set<Long> current = new HashSet<>();
+        for (ConflictPair pair : nearby) {
+            current.add(pair.farmerId());
+            if (!previous.contains(pair.farmerId())) {
+                messagingTemplate.convertAndSend(alertDestination(pair.farmerId()), new ProximityAlert(
+                        pair.farmerId(), herderId, pair.distanceKm(),
+                        position.latitude(), position.longitude(), position.recordedAtMillis()));
+            }
+        }
+        if (current.isEmpty()) {
+            alertedFarms.remove(herderId);
+        } else {
+            alertedFarms.put(herderId, current);
+        }
+    }
+
+    private int shardFor(long herderId) {
+        return (int) Math.floorMod(herderId, (long) pendingPositions.size());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.GreenPath.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.example.GreenPath.DTO.PendingSignup;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded in-memory pending signup store.
+ *
+ * Every entry gets the same time-to-live, so insertion order is also expiry order: the
+ * insertion-ordered map doubles as the expiry queue. Purging walks from the head and stops at
+ * the first live entry, so it costs O(expired) instead of O(all). When the store is full the
+ * entry closest to expiry is evicted.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.signup.pending-store.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPendingSignupStore implements PendingSignupStore {
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, PendingSignup> entries = new LinkedHashMap<>();
+
+    public InMemoryPendingSignupStore(@Value("${app.signup.pending-store.capacity:10000}") int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pending signup store capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void put(PendingSignup signup) {
+        lock.lock();
+        try {
+            // Re-inserting moves the entry to the tail, matching its new expiry
+            entries.remove(signup.email());
+            entries.put(signup.email(), signup);
+
+            purgeExpiredLocked(System.currentTimeMillis());
+            while (entries.size() > capacity) {
+                Iterator<Map.Entry<String, PendingSignup>> eldest = entries.entrySet().iterator();
+                String evicted = eldest.next().getKey();
+                eldest.remove();
+                log.warn("Pending signup store full ({} entries), evicted pending signup for: {}", capacity, evicted);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<PendingSignup> find(String email) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(entries.get(email));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean updateCode(String email, String newCode) {
+        lock.lock();
+        try {
+            // Replacing the value of an existing key keeps its position, and so its expiry slot
+            PendingSignup current = entries.get(email);
+            if (current == null) {
+                return false;
+            }
+            entries.put(email, current.withVerificationCode(newCode));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<PendingSignup> remove(String email) {
+        lock.lock();
+        try {
+            return Optional.ofNullable(entries.remove(email));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int purgeExpired() {
+        lock.lock();
+        try {
+            return purgeExpiredLocked(System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int purgeExpiredLocked(long nowMillis) {
+        int removed = 0;
+        Iterator<PendingSignup> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().isExpiredAt(nowMillis)) {
+                break;
+            }
+            iterator.remove();
+            removed++;
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.GreenPath.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import com.example.GreenPath.DTO.PendingSignup;
+import com.example.GreenPath.Model.UserType;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pending signup store shared by every node through the application datasource, so a
+ * verification request can land on any instance behind the load balancer.
+ *
+ * The table is UNLOGGED: pending signups are short-lived and can be re-requested, so they
+ * don't need to survive a crash, and skipping the WAL keeps signup writes cheap.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.signup.pending-store.type", havingValue = "jdbc")
+public class JdbcPendingSignupStore implements PendingSignupStore {
+
+    private static final String CREATE_TABLE_SQL =
+        "CREATE UNLOGGED TABLE IF NOT EXISTS pending_signups (" +
+        "email VARCHAR(100) PRIMARY KEY, " +
+        "first_name VARCHAR(50) NOT NULL, " +
+        "last_name VARCHAR(50) NOT NULL, " +
+        "phone_number VARCHAR(20), " +
+        "password_hash VARCHAR(255) NOT NULL, " +
+        "user_type VARCHAR(20) NOT NULL, " +
+        "verification_code VARCHAR(10) NOT NULL, " +
+        "expires_at BIGINT NOT NULL)";
+
+    private static final String CREATE_EXPIRY_INDEX_SQL =
+        "CREATE INDEX IF NOT EXISTS idx_pending_signups_expires_at ON pending_signups (expires_at)";
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO pending_signups (email, first_name, last_name, phone_number, password_hash, " +
+        "user_type, verification_code, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (email) DO UPDATE SET first_name = EXCLUDED.first_name, " +
+        "last_name = EXCLUDED.last_name, phone_number = EXCLUDED.phone_number, " +
+        "password_hash = EXCLUDED.password_hash, user_type = EXCLUDED.user_type, " +
+        "verification_code = EXCLUDED.verification_code, expires_at = EXCLUDED.expires_at";
+
+    private static final String SELECT_SQL =
+        "SELECT email, first_name, last_name, phone_number, password_hash, user_type, " +
+        "verification_code, expires_at FROM pending_signups WHERE email = ?";
+
+    private static final String DELETE_RETURNING_SQL =
+        "DELETE FROM pending_signups WHERE email = ? RETURNING email, first_name, last_name, " +
+        "phone_number, password_hash, user_type, verification_code, expires_at";
+
+    private static final String UPDATE_CODE_SQL =
+        "UPDATE pending_signups SET verification_code = ? WHERE email = ?";
+
+    // Expired rows are deleted in bounded batches; SKIP LOCKED lets several nodes purge concurrently
+    private static final String PURGE_BATCH_SQL =
+        "DELETE FROM pending_signups WHERE email IN (" +
+        "SELECT email FROM pending_signups WHERE expires_at < ? LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final RowMapper<PendingSignup> ROW_MAPPER = JdbcPendingSignupStore::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int purgeBatchSize;
+    private final boolean initializeSchema;
+
+    public JdbcPendingSignupStore(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.signup.pending-store.jdbc.purge-batch-size:500}") int purgeBatchSize,
+                                  @Value("${app.signup.pending-store.jdbc.initialize-schema:true}") boolean initializeSchema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgeBatchSize = purgeBatchSize;
+        this.initializeSchema = initializeSchema;
+    }
+
+    @PostConstruct
+    void createTable() {
+        if (initializeSchema) {
+            jdbcTemplate.execute(CREATE_TABLE_SQL);
+            jdbcTemplate.execute(CREATE_EXPIRY_INDEX_SQL);
+            log.info("Pending signup table initialized");
+        }
+    }
+
+    @Override
+    public void put(PendingSignup signup) {
+        jdbcTemplate.update(UPSERT_SQL,
+            signup.email(),
+            signup.firstName(),
+            signup.lastName(),
+            signup.phoneNumber(),
+            signup.passwordHash(),
+            signup.userType().name(),
+            signup.verificationCode(),
+            signup.expiresAtMillis());
+    }
+
+    @Override
+    public Optional<PendingSignup> find(String email) {
+        List<PendingSignup> rows = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, email);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public boolean updateCode(String email, String newCode) {
+        return jdbcTemplate.update(UPDATE_CODE_SQL, newCode, email) > 0;
+    }
+
+    @Override
+    public Optional<PendingSignup> remove(String email) {
+        List<PendingSignup> rows = jdbcTemplate.query(DELETE_RETURNING_SQL, ROW_MAPPER, email);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int total = 0;
+        int removed;
+        do {
+            removed = jdbcTemplate.update(PURGE_BATCH_SQL, now, purgeBatchSize);
+            total += removed;
+        } while (removed == purgeBatchSize);
+        return total;
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pending_signups", Integer.class);
+        return count != null ? count : 0;
+    }
+
+    private static PendingSignup mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new PendingSignup(
+            rs.getString("email"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("phone_number"),
+            rs.getString("password_hash"),
+            UserType.valueOf(rs.getString("user_type")),
+            rs.getString("verification_code"),
+            rs.getLong("expires_at"));
+    }
+}
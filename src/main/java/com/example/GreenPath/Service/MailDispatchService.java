@@ -0,0 +1,188 @@
+package com.example.GreenPath.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.GreenPath.Logging.LogMasking;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outbound verification mail pipeline.
+ *
+ * Request threads only enqueue; a small pool of virtual-thread workers drains the bounded
+ * queue in batches and talks to SMTP, retrying failed sends with exponential backoff. When the
+ * queue is full, enqueue fails fast so the caller can push back on the client.
+ */
+@Slf4j
+@Service
+public class MailDispatchService {
+
+    public enum DispatchStatus {
+        QUEUED, SENDING, RETRYING, SENT, FAILED
+    }
+
+    private record VerificationMail(String to, String code) {
+    }
+
+    private record StatusEntry(DispatchStatus status, long updatedAtMillis) {
+    }
+
+    @Autowired
+    private EmailService emailService;
+
+    @Value("${app.mail.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.mail.dispatch.workers:4}")
+    private int workerCount;
+
+    @Value("${app.mail.dispatch.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.mail.dispatch.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.mail.dispatch.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${app.mail.dispatch.status-retention-minutes:15}")
+    private int statusRetentionMinutes;
+
+    private BlockingQueue<VerificationMail> queue;
+    private final Map<String, StatusEntry> statuses = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @PostConstruct
+    void startWorkers() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        Thread.Builder builder = Thread.ofVirtual().name("mail-worker-", 0);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(builder.start(this::drainQueue));
+        }
+        log.info("Mail dispatch started with {} workers and queue capacity {}", workerCount, queueCapacity);
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        log.info("Mail dispatch stopped. Unsent messages dropped: {}", queue.size());
+    }
+
+    /**
+     * Queue a verification email for asynchronous delivery.
+     * Returns false when the backlog is full and the caller should ask the client to retry later.
+     */
+    public boolean enqueueVerificationEmail(String to, String code) {
+        String key = normalize(to);
+        // Mark as queued first so a fast worker's SENDING update is never overwritten
+        updateStatus(key, DispatchStatus.QUEUED);
+        // Queued under the normalized address, so dedup and status updates all use the same key
+        if (!queue.offer(new VerificationMail(key, code))) {
+            statuses.remove(key);
+            log.warn("Mail queue full ({} messages), rejecting verification email for: {}", queueCapacity, LogMasking.email(to));
+            return false;
+        }
+        log.debug("Verification email queued for: {}, Queue depth: {}", LogMasking.email(to), queue.size());
+        return true;
+    }
+
+    // Latest delivery status for an email address, or null if nothing was sent recently
+    public DispatchStatus getStatus(String email) {
+        StatusEntry entry = statuses.get(normalize(email));
+        return entry != null ? entry.status() : null;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Drop delivery statuses nobody has polled for a while so the map stays bounded
+     */
+    @Scheduled(fixedRateString = "${app.cleanup.interval:300000}")
+    public void pruneStatuses() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(statusRetentionMinutes);
+        statuses.entrySet().removeIf(entry -> entry.getValue().updatedAtMillis() < cutoff);
+    }
+
+    private void drainQueue() {
+        List<VerificationMail> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error sending verification batch", e);
+                batch.forEach(mail -> updateStatus(normalize(mail.to()), DispatchStatus.FAILED));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<VerificationMail> batch) throws InterruptedException {
+        // A resend queued behind the original only needs the latest code delivered
+        Map<String, String> pending = new LinkedHashMap<>();
+        for (VerificationMail mail : batch) {
+            pending.put(normalize(mail.to()), mail.code());
+        }
+        long backoff = initialBackoffMs;
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            DispatchStatus inFlight = attempt == 1 ? DispatchStatus.SENDING : DispatchStatus.RETRYING;
+            pending.keySet().forEach(to -> updateStatus(to, inFlight));
+
+            Set<String> failed = emailService.sendVerificationEmails(pending);
+            pending.forEach((to, code) -> {
+                if (!failed.contains(to)) {
+                    updateStatus(to, DispatchStatus.SENT);
+                }
+            });
+            pending.keySet().retainAll(failed);
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            if (attempt < maxAttempts) {
+                log.warn("{} verification emails failed (attempt {}/{}), retrying in {}ms",
+                        pending.size(), attempt, maxAttempts, backoff);
+                Thread.sleep(backoff);
+                backoff *= 2;
+            }
+        }
+
+        log.error("Giving up on verification emails to: {} after {} attempts",
+                pending.keySet().stream().map(LogMasking::email).toList(), maxAttempts);
+        pending.keySet().forEach(to -> updateStatus(to, DispatchStatus.FAILED));
+    }
+
+    private void updateStatus(String key, DispatchStatus status) {
+        statuses.put(key, new StatusEntry(status, System.currentTimeMillis()));
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+}
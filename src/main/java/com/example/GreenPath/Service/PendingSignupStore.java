@@ -0,0 +1,34 @@
+package com.example.GreenPath.Service;
+
+import java.util.Optional;
+
+import com.example.GreenPath.DTO.PendingSignup;
+
+/**
+ * Holds registrations that are waiting for email verification, keyed by normalized email.
+ */
+public interface PendingSignupStore {
+
+    // Store (or replace) the pending signup for its email
+    void put(PendingSignup signup);
+
+    // Look up a pending signup; the entry may already be expired so callers can report it
+    Optional<PendingSignup> find(String email);
+
+    // Swap the verification code of an existing entry, keeping its expiry
+    boolean updateCode(String email, String newCode);
+
+    // Remove and return the pending signup for this email
+    Optional<PendingSignup> remove(String email);
+
+    // Drop all expired entries, returning how many were removed
+    int purgeExpired();
+
+    // Number of entries currently held
+    int size();
+
+    // True when every node sees the same entries, so one node's purge covers the cluster
+    default boolean isShared() {
+        return false;
+    }
+}
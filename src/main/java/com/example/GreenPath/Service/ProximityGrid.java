@@ -0,0 +1,130 @@
+package com.example.GreenPath.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import com.example.GreenPath.Model.UserType;
+
+/**
+ * Uniform latitude/longitude grid of farm and grazing-area centres.
+ *
+ * Cells are (nearly) square in degrees; a lookup scans only the cells overlapping the query's bounding
+ * box, so its cost depends on local density rather than on the total number of users.
+ * Safe for concurrent readers and writers; a reader may miss an update that races with it.
+ */
+public final class ProximityGrid {
+
+    public record Entry(long userId, UserType userType, double latitude, double longitude, double radiusKm) {
+    }
+
+    private final double cellDegrees;
+    private final int lonCells;
+    // Slightly under cellDegrees so a whole number of cells spans 360 degrees and indexes wrap cleanly
+    private final double lonCellDegrees;
+    private final ConcurrentHashMap<Long, Set<Entry>> cells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Entry> entriesByUser = new ConcurrentHashMap<>();
+
+    public ProximityGrid(double cellSizeKm) {
+        this.cellDegrees = GeoMath.latitudeDelta(cellSizeKm);
+        this.lonCells = (int) Math.ceil(360.0 / cellDegrees);
+        this.lonCellDegrees = 360.0 / lonCells;
+    }
+
+    // Add or move a user's entry
+    public void put(Entry entry) {
+        entriesByUser.compute(entry.userId(), (id, previous) -> {
+            if (previous != null) {
+                removeFromCell(previous);
+            }
+            cells.compute(cellKey(latIndex(entry.latitude()), lonIndex(entry.longitude())), (key, members) -> {
+                Set<Entry> set = members != null ? members : ConcurrentHashMap.newKeySet();
+                set.add(entry);
+                return set;
+            });
+            return entry;
+        });
+    }
+
+    public void remove(long userId) {
+        entriesByUser.computeIfPresent(userId, (id, previous) -> {
+            removeFromCell(previous);
+            return null;
+        });
+    }
+
+    public void clear() {
+        entriesByUser.clear();
+        cells.clear();
+    }
+
+    public int size() {
+        return entriesByUser.size();
+    }
+
+    // Occupied cells; empty cells are dropped as soon as their last entry leaves
+    int cellCount() {
+        return cells.size();
+    }
+
+    public List<Entry> entries(UserType userType) {
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : entriesByUser.values()) {
+            if (entry.userType() == userType) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    // Visit every entry whose centre may lie within radiusKm; callers apply the exact distance
+    public void forEachCandidate(double latitude, double longitude, double radiusKm, Consumer<Entry> visitor) {
+        double dLat = GeoMath.latitudeDelta(radiusKm);
+        double minLat = Math.max(-90, latitude - dLat);
+        double maxLat = Math.min(90, latitude + dLat);
+        double dLon = GeoMath.longitudeDelta(Math.max(Math.abs(minLat), Math.abs(maxLat)), radiusKm);
+
+        int firstLat = latIndex(minLat);
+        int lastLat = latIndex(maxLat);
+        int firstLon;
+        int lastLon;
+        if (dLon >= 180) {
+            firstLon = 0;
+            lastLon = lonCells - 1;
+        } else {
+            // May run past either end; indexes wrap across the antimeridian below
+            firstLon = (int) Math.floor((longitude - dLon + 180) / lonCellDegrees);
+            lastLon = Math.min(firstLon + lonCells - 1, (int) Math.floor((longitude + dLon + 180) / lonCellDegrees));
+        }
+
+        for (int lat = firstLat; lat <= lastLat; lat++) {
+            for (int lon = firstLon; lon <= lastLon; lon++) {
+                Set<Entry> members = cells.get(cellKey(lat, Math.floorMod(lon, lonCells)));
+                if (members != null) {
+                    members.forEach(visitor);
+                }
+            }
+        }
+    }
+
+    private void removeFromCell(Entry entry) {
+        cells.computeIfPresent(cellKey(latIndex(entry.latitude()), lonIndex(entry.longitude())), (key, members) -> {
+            members.remove(entry);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / lonCellDegrees), lonCells);
+    }
+
+    private static long cellKey(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+}
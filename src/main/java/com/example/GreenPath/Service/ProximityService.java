@@ -0,0 +1,148 @@
+package com.example.GreenPath.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.GreenPath.DTO.NearbyUser;
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Model.UserType;
+import com.example.GreenPath.Repository.UserRepository;
+
+/**
+ * Radius and k-nearest-neighbour queries between farms and grazing areas.
+ *
+ * Each query first narrows to a latitude/longitude bounding box through the coordinate
+ * indexes, then applies the exact great-circle distance in memory, so the cost depends on
+ * the number of users near the point rather than on the size of the table.
+ *
+ * Herder distances are measured to the edge of the grazing circle, not its centre.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProximityService {
+
+    private static final int MAX_RESULTS = 100;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Grazing radii above this are clamped, so the herder bounding box stays bounded
+    @Value("${app.geo.max-grazing-radius-km:50}")
+    private double maxGrazingRadiusKm;
+
+    @Value("${app.geo.knn-initial-radius-km:10}")
+    private double knnInitialRadiusKm;
+
+    @Value("${app.geo.max-search-radius-km:500}")
+    private double maxSearchRadiusKm;
+
+    // Farmers whose farm lies within radiusKm of the point, nearest first
+    public List<NearbyUser> findFarmersWithin(double latitude, double longitude, double radiusKm) {
+        return farmersWithin(latitude, longitude, Math.min(radiusKm, maxSearchRadiusKm));
+    }
+
+    // Herders whose grazing area comes within radiusKm of the point, nearest first
+    public List<NearbyUser> findHerdersWithin(double latitude, double longitude, double radiusKm) {
+        return herdersWithin(latitude, longitude, Math.min(radiusKm, maxSearchRadiusKm));
+    }
+
+    public List<NearbyUser> findNearestFarmers(double latitude, double longitude, int k) {
+        return nearest(UserType.FARMER, latitude, longitude, k);
+    }
+
+    public List<NearbyUser> findNearestHerders(double latitude, double longitude, int k) {
+        return nearest(UserType.HERDER, latitude, longitude, k);
+    }
+
+    // "Herders grazing within 20 km of this farm"
+    public List<NearbyUser> findHerdersNearFarm(User farmer, double radiusKm) {
+        if (!GeoMath.isValid(farmer.getFarmLatitude(), farmer.getFarmLongitude())) {
+            return List.of();
+        }
+        return findHerdersWithin(farmer.getFarmLatitude(), farmer.getFarmLongitude(), radiusKm);
+    }
+
+    // Farms within radiusKm of the edge of this herder's grazing area
+    public List<NearbyUser> findFarmersNearGrazingArea(User herder, double radiusKm) {
+        if (!GeoMath.isValid(herder.getGrazingLatitude(), herder.getGrazingLongitude())) {
+            return List.of();
+        }
+        return findFarmersWithin(herder.getGrazingLatitude(), herder.getGrazingLongitude(),
+                radiusKm + grazingRadius(herder));
+    }
+
+    // Widen the search radius until at least k users fall inside it; the box always covers the
+    // circle, so the k closest inside the circle are the true k nearest
+    private List<NearbyUser> nearest(UserType userType, double latitude, double longitude, int k) {
+        int limit = Math.min(Math.max(k, 0), MAX_RESULTS);
+        if (limit == 0) {
+            return List.of();
+        }
+        double radiusKm = knnInitialRadiusKm;
+        List<NearbyUser> found;
+        while (true) {
+            found = userType == UserType.FARMER
+                    ? farmersWithin(latitude, longitude, radiusKm)
+                    : herdersWithin(latitude, longitude, radiusKm);
+            if (found.size() >= limit || radiusKm >= maxSearchRadiusKm) {
+                break;
+            }
+            radiusKm = Math.min(radiusKm * 2, maxSearchRadiusKm);
+        }
+        return found.size() > limit ? found.subList(0, limit) : found;
+    }
+
+    private List<NearbyUser> farmersWithin(double latitude, double longitude, double radiusKm) {
+        double[] box = boundingBox(latitude, longitude, radiusKm);
+        List<NearbyUser> result = new ArrayList<>();
+        for (User farmer : userRepository.findFarmersInBox(box[0], box[1], box[2], box[3])) {
+            double distance = GeoMath.haversineKm(latitude, longitude, farmer.getFarmLatitude(), farmer.getFarmLongitude());
+            if (distance <= radiusKm) {
+                result.add(new NearbyUser(farmer, distance));
+            }
+        }
+        result.sort(Comparator.comparingDouble(NearbyUser::distanceKm));
+        return result;
+    }
+
+    private List<NearbyUser> herdersWithin(double latitude, double longitude, double radiusKm) {
+        // Any grazing circle reaching the query circle has its centre within radius + max grazing radius
+        double[] box = boundingBox(latitude, longitude, radiusKm + maxGrazingRadiusKm);
+        List<NearbyUser> result = new ArrayList<>();
+        for (User herder : userRepository.findHerdersInBox(box[0], box[1], box[2], box[3])) {
+            double centre = GeoMath.haversineKm(latitude, longitude, herder.getGrazingLatitude(), herder.getGrazingLongitude());
+            double distance = Math.max(0, centre - grazingRadius(herder));
+            if (distance <= radiusKm) {
+                result.add(new NearbyUser(herder, distance));
+            }
+        }
+        result.sort(Comparator.comparingDouble(NearbyUser::distanceKm));
+        return result;
+    }
+
+    private double grazingRadius(User herder) {
+        Double radius = herder.getGrazingRadiusKm();
+        return radius == null || radius < 0 ? 0 : Math.min(radius, maxGrazingRadiusKm);
+    }
+
+    // {minLat, maxLat, minLon, maxLon}; a box crossing the antimeridian falls back to all longitudes
+    private static double[] boundingBox(double latitude, double longitude, double radiusKm) {
+        double dLat = GeoMath.latitudeDelta(radiusKm);
+        double minLat = Math.max(-90, latitude - dLat);
+        double maxLat = Math.min(90, latitude + dLat);
+        double dLon = GeoMath.longitudeDelta(Math.max(Math.abs(minLat), Math.abs(maxLat)), radiusKm);
+        double minLon = longitude - dLon;
+        double maxLon = longitude + dLon;
+        if (minLon < -180 || maxLon > 180) {
+            minLon = -180;
+            maxLon = 180;
+        }
+        return new double[] { minLat, maxLat, minLon, maxLon };
+    }
+}
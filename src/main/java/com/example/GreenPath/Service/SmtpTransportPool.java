@@ -0,0 +1,162 @@
+package com.example.GreenPath.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a few authenticated SMTP connections open so bursts of mail don't pay a TLS handshake
+ * per message. Connections idle for longer than the idle timeout are closed, and a connection
+ * that has been idle for a while is probed (NOOP) before it is reused.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.mail.transport.pooled", havingValue = "true")
+public class SmtpTransportPool {
+
+    private static class PooledTransport {
+        final Transport transport;
+        long lastUsedMillis;
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+            this.lastUsedMillis = System.currentTimeMillis();
+        }
+    }
+
+    private final JavaMailSenderImpl mailSender;
+    private final long idleTimeoutMs;
+    private final long healthCheckAfterIdleMs;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+
+    public SmtpTransportPool(JavaMailSender mailSender,
+                             @Value("${app.mail.transport.pool-size:2}") int poolSize,
+                             @Value("${app.mail.transport.idle-timeout-ms:60000}") long idleTimeoutMs,
+                             @Value("${app.mail.transport.health-check-after-idle-ms:5000}") long healthCheckAfterIdleMs) {
+        if (!(mailSender instanceof JavaMailSenderImpl impl)) {
+            throw new IllegalStateException("Pooled SMTP transport requires a JavaMailSenderImpl");
+        }
+        this.mailSender = impl;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.healthCheckAfterIdleMs = healthCheckAfterIdleMs;
+        this.permits = new Semaphore(poolSize);
+    }
+
+    /**
+     * Send messages over one pooled connection.
+     * Returns the messages that could not be sent; an empty list means every message went out.
+     */
+    public List<MimeMessage> sendAll(List<MimeMessage> messages) throws InterruptedException {
+        List<MimeMessage> failed = new ArrayList<>();
+        permits.acquire();
+        PooledTransport pooled = null;
+        int next = 0;
+        try {
+            pooled = borrow();
+            while (next < messages.size()) {
+                MimeMessage message = messages.get(next++);
+                try {
+                    if (message.getSentDate() == null) {
+                        message.setSentDate(new Date());
+                    }
+                    message.saveChanges();
+                    pooled.transport.sendMessage(message, message.getAllRecipients());
+                } catch (MessagingException e) {
+                    log.warn("Pooled SMTP send failed: {}", e.getMessage());
+                    failed.add(message);
+                    if (!pooled.transport.isConnected()) {
+                        // Connection dropped mid-batch; reconnect for the rest
+                        close(pooled);
+                        pooled = null;
+                        pooled = borrow();
+                    }
+                }
+            }
+            pooled.lastUsedMillis = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+            pooled = null;
+        } catch (MessagingException e) {
+            log.error("Could not open pooled SMTP connection", e);
+            failed.addAll(messages.subList(next, messages.size()));
+        } finally {
+            if (pooled != null) {
+                close(pooled);
+            }
+            permits.release();
+        }
+        return failed;
+    }
+
+    /**
+     * Close connections that have been idle longer than the idle timeout
+     */
+    @Scheduled(fixedDelayString = "${app.mail.transport.idle-timeout-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        // Most recently used connections sit at the head, so stale ones collect at the tail
+        PooledTransport candidate;
+        while ((candidate = idle.peekLast()) != null && candidate.lastUsedMillis < cutoff) {
+            if (idle.removeLastOccurrence(candidate)) {
+                close(candidate);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport pooled;
+        long now = System.currentTimeMillis();
+        while ((pooled = idle.pollFirst()) != null) {
+            long idleFor = now - pooled.lastUsedMillis;
+            if (idleFor > idleTimeoutMs) {
+                close(pooled);
+            } else if (idleFor > healthCheckAfterIdleMs && !pooled.transport.isConnected()) {
+                // isConnected() issues an SMTP NOOP, so it is only worth doing after some idle time
+                close(pooled);
+            } else {
+                return pooled;
+            }
+        }
+        return connect();
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Transport transport = mailSender.getProtocol() != null
+            ? mailSender.getSession().getTransport(mailSender.getProtocol())
+            : mailSender.getSession().getTransport();
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        log.debug("Opened pooled SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    private void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing pooled SMTP connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.GreenPath.Service;
+
+import java.util.Optional;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.GreenPath.DTO.UserProfile;
+
+/**
+ * Per-node cache of UserProfile snapshots by id, used by userService.findProfile for page
+ * rendering.
+ *
+ * Nothing security-relevant is read from here: authentication always loads credentials from
+ * the database. Other nodes aren't told about writes, so a profile can be stale for up to the
+ * TTL in spring.cache.caffeine.spec on nodes that didn't make the change.
+ */
+@Component
+public class UserCache {
+
+    public static final String USERS_BY_ID = "usersById";
+
+    private final Cache usersById;
+
+    public UserCache(CacheManager cacheManager) {
+        this.usersById = cacheManager.getCache(USERS_BY_ID);
+    }
+
+    public Optional<UserProfile> getById(Long id) {
+        return Optional.ofNullable(usersById.get(id, UserProfile.class));
+    }
+
+    public void put(UserProfile profile) {
+        if (profile.id() == null) {
+            return;
+        }
+        usersById.put(profile.id(), profile);
+    }
+
+    /**
+     * Evict a user now and again once the surrounding transaction commits, so a concurrent
+     * reader can't re-cache the pre-commit row.
+     */
+    public void evict(Long id) {
+        usersById.evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    usersById.evict(id);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.GreenPath.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Repository.UserRepository;
+
+/**
+ * User search backed by the PostgreSQL full-text and trigram indexes from UserSearchSchema.
+ *
+ * Results are ranked by full-text relevance, then trigram similarity. Substring matches
+ * still work, but they use the trigram index instead of scanning the table.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserSearchService {
+
+    private static final int MAX_RESULTS = 100;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Ranked search over name, location, crops and herd type
+    public Slice<User> search(String searchTerm, Pageable pageable) {
+        String term = normalize(searchTerm);
+        if (term.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        int size = pageSize(pageable);
+        List<User> rows = userRepository.searchRanked(term, containsPattern(term), size + 1, offset(pageable));
+        return toSlice(rows, pageable, size);
+    }
+
+    // Typeahead: every word must match as a prefix ("jo sm" matches "John Smith")
+    public List<User> typeahead(String prefix, int limit) {
+        String[] words = NON_WORD.split(normalize(prefix));
+        List<String> tokens = new ArrayList<>();
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                tokens.add(word + ":*");
+            }
+        }
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        // Words are letters and digits only, so they are safe inside a tsquery
+        String tsQuery = String.join(" & ", tokens);
+        return userRepository.searchPrefix(tsQuery, Math.min(limit, MAX_RESULTS));
+    }
+
+    // Herders whose herd type mentions the given animal
+    public Slice<User> findHerdersByHerdType(String herdType, Pageable pageable) {
+        int size = pageSize(pageable);
+        List<User> rows = userRepository.searchHerdersByHerdType(containsPattern(normalize(herdType)), size + 1, offset(pageable));
+        return toSlice(rows, pageable, size);
+    }
+
+    // Users whose location mentions the given place
+    public Slice<User> findByLocation(String location, Pageable pageable) {
+        int size = pageSize(pageable);
+        List<User> rows = userRepository.searchByLocation(containsPattern(normalize(location)), size + 1, offset(pageable));
+        return toSlice(rows, pageable, size);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase();
+    }
+
+    // LIKE pattern with wildcards in the user's input escaped ('!' is the ESCAPE character)
+    private static String containsPattern(String term) {
+        String escaped = term.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+
+    private static long offset(Pageable pageable) {
+        return pageable.isPaged() ? pageable.getOffset() : 0;
+    }
+
+    private static int pageSize(Pageable pageable) {
+        return pageable.isPaged() ? Math.min(pageable.getPageSize(), MAX_RESULTS) : MAX_RESULTS;
+    }
+
+    // One extra row was fetched to tell whether another page exists
+    private static Slice<User> toSlice(List<User> rows, Pageable pageable, int size) {
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+}
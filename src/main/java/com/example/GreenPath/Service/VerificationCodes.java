@@ -0,0 +1,20 @@
+package com.example.GreenPath.Service;
+
+import java.security.SecureRandom;
+
+/**
+ * Six-digit email verification codes. Kept outside the controller so the benchmarks can call it.
+ */
+public final class VerificationCodes {
+
+    // Codes authorize account creation, so they must not be predictable; SecureRandom is thread-safe
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private VerificationCodes() {
+    }
+
+    public static String generate() {
+        int code = 100000 + RANDOM.nextInt(900000);
+        return String.valueOf(code);
+    }
+}
@@ -1,36 +1,128 @@
 package com.example.GreenPath.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.GreenPath.DTO.PendingSignup;
+import com.example.GreenPath.DTO.UserCredentials;
+import com.example.GreenPath.DTO.UserProfile;
+import com.example.GreenPath.DTO.UserSummary;
+import com.example.GreenPath.Logging.LogMasking;
 import com.example.GreenPath.Model.User;
 import com.example.GreenPath.Model.UserType;
 import com.example.GreenPath.Repository.UserRepository;
-
+import com.example.GreenPath.Repository.VerificationCodeCleanup;
+import com.example.GreenPath.Security.ClientAddress;
+import com.example.GreenPath.Security.LoginThrottle;
+import com.example.GreenPath.Security.LoginThrottledException;
+import com.example.GreenPath.Security.PasswordHashingBusyException;
+import com.example.GreenPath.Security.RateLimitDecision;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 @Service
 @Transactional
-public class userService implements UserDetailsService {
+public class userService implements UserDetailsService, UserDetailsPasswordService {
+
+    // Upper bound on any page requested through the service layer
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
     private UserRepository userRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PendingSignupStore pendingSignupStore;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserSearchService userSearchService;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private ConflictMatchingService conflictMatchingService;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private VerificationCodeCleanup verificationCodeCleanup;
+
+    @Value("${app.cleanup.batch-size:500}")
+    private int cleanupBatchSize;
+
+    @Value("${app.cleanup.max-batches-per-run:200}")
+    private int maxCleanupBatches;
+
+    // Short transactions opened on demand: one per cleanup batch, and the login writes, which
+    // must not hold a pooled connection while a password hash is computed
+    private TransactionTemplate newTransaction;
+
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Value("${app.cleanup.pending-user-expiry-minutes:15}")
+    private int pendingUserExpiryMinutes;
+
+    @Value("${app.cleanup.enable-detailed-logging:false}")
+    private boolean enableDetailedCleanupLogging;
+
+    // Dashboard statistics, refreshed on a schedule and adjusted on writes in between
+    private final AtomicReference<UserStats> statsSnapshot = new AtomicReference<>();
+
     // Spring Security UserDetailsService implementation
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        // Always the database: a cached copy could be stale on this node or carry an old hash
+        UserDetails user = userRepository.findCredentialsByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
         
         if (!user.isEnabled()) {
@@ -40,46 +132,123 @@ public class userService implements UserDetailsService {
         return user;
     }
 
-    // Authentication with role validation
+    // Authentication with role validation. Not transactional: the hash check can wait for a
+    // hashing thread, so the repository calls and the final writes use their own short transactions
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User authenticateWithRole(String email, String password, UserType userType) {
+        AuthMetrics.Observation observation = authMetrics.start(AuthMetrics.Operation.LOGIN)
+                .userType(userType)
+                .field("email", LogMasking.email(email));
+        // Throttle before the lookup and the BCrypt check
+        RateLimitDecision decision = loginThrottle.tryAcquire(email, ClientAddress.current());
+        if (!decision.allowed()) {
+            observation.rejected("throttled");
+            throw new LoginThrottledException(decision.retryAfterSeconds());
+        }
+        
         try {
-            Optional<User> userOptional = userRepository.findByEmail(email);
+            Optional<UserCredentials> credentialsOptional = userRepository.findCredentialsByEmail(email);
             
-            if (userOptional.isPresent()) {
-                User user = userOptional.get();
-                
-                // Check if password matches
-                if (passwordEncoder.matches(password, user.getPassword())) {
-                    // Check if user has the requested role
-                    if (user.getUserType() == userType && user.isEnabled()) {
-                        // Update last login time
-                        user.updateLastLogin();
-                        userRepository.save(user);
-                        return user;
-                    }
-                }
+            if (credentialsOptional.isEmpty()) {
+                observation.rejected("unknown_email");
+                return null;
             }
-            return null;
+            UserCredentials credentials = credentialsOptional.get();
+            
+            // Check if password matches
+            if (!passwordEncoder.matches(password, credentials.password())) {
+                observation.rejected("bad_password");
+                return null;
+            }
+            // Check if user has the requested role
+            if (credentials.userType() != userType) {
+                observation.rejected("wrong_role");
+                return null;
+            }
+            if (!credentials.enabled()) {
+                observation.rejected("disabled");
+                return null;
+            }
+            String upgradedHash = upgradedPasswordHash(credentials.id(), credentials.password(), password);
+            newTransaction.executeWithoutResult(status -> {
+                if (upgradedHash != null) {
+                    userRepository.updatePasswordHash(credentials.id(), upgradedHash);
+                }
+                // Update last login time
+                userRepository.updateLastLogin(credentials.id(), LocalDateTime.now());
+                userCache.evict(credentials.id());
+            });
+            User user = findById(credentials.id());
+            observation.success();
+            return user;
+        } catch (PasswordHashingBusyException e) {
+            observation.failed("hashing_busy");
+            throw e;
         } catch (Exception e) {
+            observation.failed("unexpected");
             throw new RuntimeException("Authentication failed", e);
         }
     }
 
-    // Find user by email
+    // Spring Security calls this after a form login whose stored hash reports upgradeEncoding
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Long id = user instanceof User entity ? entity.getId()
+                : user instanceof UserCredentials credentials ? credentials.id()
+                : null;
+        if (id == null) {
+            return user;
+        }
+        userRepository.updatePasswordHash(id, newPassword);
+        userCache.evict(id);
+        log.debug("Upgraded password hash for user {}", id);
+        return userRepository.findCredentialsByEmail(user.getUsername()).map(UserDetails.class::cast).orElse(user);
+    }
+
+    // Re-encode an outdated hash (old cost or unprefixed) while the raw password is at hand;
+    // null when no upgrade is needed or the hashing pool is busy
+    private String upgradedPasswordHash(Long id, String encodedPassword, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(encodedPassword)) {
+            return null;
+        }
+        try {
+            String upgraded = passwordEncoder.encode(rawPassword);
+            log.debug("Upgrading password hash for user {}", id);
+            return upgraded;
+        } catch (PasswordHashingBusyException e) {
+            // Not worth failing the login over; it will be retried next time
+            log.debug("Skipped password hash upgrade for user {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    // Find user by email; always the database (only findProfile is cached)
     public User findByEmail(String email) {
         return userRepository.findByEmail(email).orElse(null);
     }
 
-    // Find user by ID
+    // Find user by ID; always the database, returning a managed entity for writes
     public User findById(Long id) {
         return userRepository.findById(id).orElse(null);
     }
 
+    // Page-ready snapshot of a user, served from the user cache when present
+    @Transactional(readOnly = true)
+    public UserProfile findProfile(Long id) {
+        Optional<UserProfile> cached = userCache.getById(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        Optional<UserProfile> loaded = userRepository.findById(id).map(UserProfile::from);
+        loaded.ifPresent(userCache::put);
+        return loaded.orElse(null);
+    }
+
     // Save new user
     public User saveUser(User user) {
         try {
             // Check if user already exists
-            if (userRepository.findByEmail(user.getEmail()).isPresent()) {
+            if (userRepository.existsByEmail(user.getEmail())) {
                 throw new RuntimeException("User with this email already exists");
             }
 
@@ -92,7 +261,45 @@ public class userService implements UserDetailsService {
             user.setCreatedAt(LocalDateTime.now());
             user.setUpdatedAt(LocalDateTime.now());
 
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            adjustStatsAfterCommit(1, typeDelta(saved.getUserType(), UserType.FARMER),
+                    typeDelta(saved.getUserType(), UserType.HERDER), 0);
+            conflictMatchingService.userChanged(saved);
+            return saved;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Failed to save user: " + e.getMessage(), e);
+        }
+    }
+
+    // Encode a raw password so pending signups never hold it in clear text; no transaction, so
+    // waiting for a hashing thread doesn't pin a pooled connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String encodePassword(String rawPassword) {
+        return passwordEncoder.encode(rawPassword);
+    }
+
+    // Persist a pending signup whose email has just been verified
+    public User registerPendingSignup(PendingSignup signup) {
+        try {
+            if (userRepository.existsByEmail(signup.email())) {
+                throw new RuntimeException("User with this email already exists");
+            }
+
+            User user = User.builder()
+                .firstName(signup.firstName())
+                .lastName(signup.lastName())
+                .email(signup.email())
+                .phoneNumber(signup.phoneNumber())
+                .password(signup.passwordHash()) // Already encoded at signup
+                .userType(signup.userType())
+                .enabled(true)
+                .verified(true)
+                .build();
+
+            User saved = userRepository.save(user);
+            adjustStatsAfterCommit(1, typeDelta(saved.getUserType(), UserType.FARMER),
+                    typeDelta(saved.getUserType(), UserType.HERDER), 1);
+            return saved;
         } catch (RuntimeException e) {
             throw new RuntimeException("Failed to save user: " + e.getMessage(), e);
         }
@@ -105,6 +312,8 @@ public class userService implements UserDetailsService {
             
             if (existingUserOptional.isPresent()) {
                 User existingUser = existingUserOptional.get();
+                UserType previousType = existingUser.getUserType();
+                validateLocation(user);
                 
                 // Update fields (don't update password here unless specifically requested)
                 existingUser.setFirstName(user.getFirstName());
@@ -120,20 +329,34 @@ public class userService implements UserDetailsService {
                     existingUser.setFarmName(user.getFarmName());
                     existingUser.setFarmSizeHectares(user.getFarmSizeHectares());
                     existingUser.setPrimaryCrops(user.getPrimaryCrops());
+                    existingUser.getCrops().clear();
+                    existingUser.getCrops().addAll(catalogService.resolveCrops(user.getPrimaryCrops()));
                     existingUser.setFarmingExperienceYears(user.getFarmingExperienceYears());
+                    existingUser.setFarmLatitude(user.getFarmLatitude());
+                    existingUser.setFarmLongitude(user.getFarmLongitude());
                 }
                 
                 // Update herder-specific fields
                 if (user.getUserType() == UserType.HERDER) {
                     existingUser.setHerdType(user.getHerdType());
+                    existingUser.getLivestockTypes().clear();
+                    existingUser.getLivestockTypes().addAll(catalogService.resolveLivestockTypes(user.getHerdType()));
                     existingUser.setHerdSize(user.getHerdSize());
                     existingUser.setGrazingArea(user.getGrazingArea());
                     existingUser.setHerdingExperienceYears(user.getHerdingExperienceYears());
+                    existingUser.setGrazingLatitude(user.getGrazingLatitude());
+                    existingUser.setGrazingLongitude(user.getGrazingLongitude());
+                    existingUser.setGrazingRadiusKm(user.getGrazingRadiusKm());
                 }
+                dropCatalogLinksOfOtherTypes(existingUser);
                 
                 existingUser.setUpdatedAt(LocalDateTime.now());
                 
-                return userRepository.save(existingUser);
+                User saved = userRepository.save(existingUser);
+                adjustTypeStatsAfterCommit(previousType, saved.getUserType());
+                userCache.evict(saved.getId());
+                conflictMatchingService.userChanged(saved);
+                return saved;
             } else {
                 throw new RuntimeException("User not found with ID: " + user.getId());
             }
@@ -142,6 +365,25 @@ public class userService implements UserDetailsService {
         }
     }
 
+    // Coordinates are optional, but the proximity queries and the grid need them in range when set
+    private static void validateLocation(User user) {
+        if (user.getUserType() == UserType.FARMER) {
+            requireValidCoordinates("farm", user.getFarmLatitude(), user.getFarmLongitude());
+        }
+        if (user.getUserType() == UserType.HERDER) {
+            requireValidCoordinates("grazing area", user.getGrazingLatitude(), user.getGrazingLongitude());
+            if (user.getGrazingRadiusKm() != null && !(user.getGrazingRadiusKm() >= 0)) {
+                throw new RuntimeException("Grazing radius must not be negative");
+            }
+        }
+    }
+
+    private static void requireValidCoordinates(String label, Double latitude, Double longitude) {
+        if ((latitude != null || longitude != null) && !GeoMath.isValid(latitude, longitude)) {
+            throw new RuntimeException("Invalid " + label + " coordinates: " + latitude + ", " + longitude);
+        }
+    }
+
     // Update user password
     public boolean updatePassword(Long userId, String oldPassword, String newPassword) {
         try {
@@ -155,6 +397,7 @@ public class userService implements UserDetailsService {
                     user.setPassword(passwordEncoder.encode(newPassword));
                     user.setUpdatedAt(LocalDateTime.now());
                     userRepository.save(user);
+                    userCache.evict(userId);
                     return true;
                 }
             }
@@ -171,9 +414,15 @@ public class userService implements UserDetailsService {
             
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
+                UserType previousType = user.getUserType();
                 user.setUserType(newUserType);
+                dropCatalogLinksOfOtherTypes(user);
                 user.setUpdatedAt(LocalDateTime.now());
-                return userRepository.save(user);
+                User saved = userRepository.save(user);
+                adjustTypeStatsAfterCommit(previousType, newUserType);
+                userCache.evict(userId);
+                conflictMatchingService.userChanged(saved);
+                return saved;
             } else {
                 throw new RuntimeException("User not found with ID: " + userId);
             }
@@ -191,7 +440,9 @@ public class userService implements UserDetailsService {
                 User user = userOptional.get();
                 user.setEnabled(enabled);
                 user.setUpdatedAt(LocalDateTime.now());
-                return userRepository.save(user);
+                User saved = userRepository.save(user);
+                userCache.evict(userId);
+                return saved;
             } else {
                 throw new RuntimeException("User not found with ID: " + userId);
             }
@@ -207,9 +458,15 @@ public class userService implements UserDetailsService {
             
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
+                boolean wasVerified = user.isVerified();
                 user.setVerified(true);
                 user.setUpdatedAt(LocalDateTime.now());
-                return userRepository.save(user);
+                User saved = userRepository.save(user);
+                if (!wasVerified) {
+                    adjustStatsAfterCommit(0, 0, 0, 1);
+                }
+                userCache.evict(userId);
+                return saved;
             } else {
                 throw new RuntimeException("User not found with ID: " + userId);
             }
@@ -221,8 +478,14 @@ public class userService implements UserDetailsService {
     // Delete user
     public boolean deleteUser(Long userId) {
         try {
-            if (userRepository.existsById(userId)) {
-                userRepository.deleteById(userId);
+            Optional<User> userOptional = userRepository.findById(userId);
+            if (userOptional.isPresent()) {
+                User user = userOptional.get();
+                userRepository.delete(user);
+                userCache.evict(userId);
+                conflictMatchingService.userDeleted(userId);
+                adjustStatsAfterCommit(-1, -typeDelta(user.getUserType(), UserType.FARMER),
+                        -typeDelta(user.getUserType(), UserType.HERDER), user.isVerified() ? -1 : 0);
                 return true;
             }
             return false;
@@ -231,54 +494,104 @@ public class userService implements UserDetailsService {
         }
     }
 
-    // Get all users
-    public List<User> getAllUsers() {
+    // Get all users, one page at a time
+    @Transactional(readOnly = true)
+    public Page<User> getAllUsers(Pageable pageable) {
+        try {
+            return userRepository.findAll(bounded(pageable));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch users", e);
+        }
+    }
+
+    // Keyset pagination for large scans: pass the last id of the previous page (0 to start)
+    @Transactional(readOnly = true)
+    public List<User> getUsersAfter(Long afterId, int limit) {
         try {
-            return userRepository.findAll();
+            return userRepository.findNextPageAfterId(afterId, PageRequest.of(0, Math.min(limit, MAX_PAGE_SIZE)));
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch users", e);
         }
     }
 
     // Get users by type
-    public List<User> getUsersByType(UserType userType) {
+    @Transactional(readOnly = true)
+    public Page<User> getUsersByType(UserType userType, Pageable pageable) {
         try {
-            return userRepository.findByUserType(userType);
+            return userRepository.findByUserType(userType, bounded(pageable));
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch users by type", e);
         }
     }
 
     // Get farmers only
-    public List<User> getAllFarmers() {
-        return getUsersByType(UserType.FARMER);
+    public Page<User> getAllFarmers(Pageable pageable) {
+        return getUsersByType(UserType.FARMER, pageable);
     }
 
     // Get herders only
-    public List<User> getAllHerders() {
-        return getUsersByType(UserType.HERDER);
+    public Page<User> getAllHerders(Pageable pageable) {
+        return getUsersByType(UserType.HERDER, pageable);
     }
 
-    // Search users by name or location
-    public List<User> searchUsers(String searchTerm) {
+    // Search users by name, location, crops or herd type (ranked, index-backed)
+    @Transactional(readOnly = true)
+    public Slice<User> searchUsers(String searchTerm, Pageable pageable) {
         try {
-            return userRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCaseOrLocationContainingIgnoreCase(
-                searchTerm, searchTerm, searchTerm);
+            return userSearchService.search(searchTerm, bounded(pageable));
         } catch (Exception e) {
             throw new RuntimeException("Failed to search users", e);
         }
     }
 
     // Get users with recent activity (logged in within last 30 days)
-    public List<User> getActiveUsers() {
+    @Transactional(readOnly = true)
+    public Page<User> getActiveUsers(Pageable pageable) {
         try {
             LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-            return userRepository.findByLastLoginAfter(thirtyDaysAgo);
+            return userRepository.findByLastLoginAfter(thirtyDaysAgo, bounded(pageable));
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch active users", e);
         }
     }
 
+    // Largest farms first
+    @Transactional(readOnly = true)
+    public List<User> getTopFarmersByFarmSize(int limit) {
+        return userRepository.findTopFarmersByFarmSize(PageRequest.of(0, Math.min(limit, MAX_PAGE_SIZE))).getContent();
+    }
+
+    // Largest herds first
+    @Transactional(readOnly = true)
+    public List<User> getTopHerdersByHerdSize(int limit) {
+        return userRepository.findTopHerdersByHerdSize(PageRequest.of(0, Math.min(limit, MAX_PAGE_SIZE))).getContent();
+    }
+
+    // Newest registrations first
+    @Transactional(readOnly = true)
+    public List<User> getRecentlyRegisteredUsers(int limit) {
+        return userRepository.findRecentlyRegisteredUsers(PageRequest.of(0, Math.min(limit, MAX_PAGE_SIZE))).getContent();
+    }
+
+    /**
+     * Visit every user through a server-side cursor, detaching entities as we go so the
+     * persistence context never holds more than one fetch batch. For batch jobs and exports.
+     */
+    @Transactional(readOnly = true)
+    public long forEachUser(Consumer<User> consumer) {
+        long visited = 0;
+        try (Stream<User> users = userRepository.streamAll()) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                consumer.accept(user);
+                entityManager.detach(user);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
     // Count users by type
     public long countUsersByType(UserType userType) {
         try {
@@ -289,13 +602,35 @@ public class userService implements UserDetailsService {
     }
 
     // Check if email exists
+    @Transactional(readOnly = true)
     public boolean emailExists(String email) {
-        return userRepository.findByEmail(email).isPresent();
+        return userRepository.existsByEmail(email);
     }
 
     // Check if phone number exists
+    @Transactional(readOnly = true)
     public boolean phoneExists(String phoneNumber) {
-        return userRepository.findByPhoneNumber(phoneNumber).isPresent();
+        return userRepository.existsByPhoneNumber(phoneNumber);
+    }
+
+    // Lightweight listing for admin screens
+    @Transactional(readOnly = true)
+    public Page<UserSummary> getUserSummaries(Pageable pageable) {
+        try {
+            return userRepository.findAllSummaries(bounded(pageable));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch users", e);
+        }
+    }
+
+    // Lightweight listing by type for admin screens
+    @Transactional(readOnly = true)
+    public Page<UserSummary> getUserSummariesByType(UserType userType, Pageable pageable) {
+        try {
+            return userRepository.findSummariesByUserType(userType, bounded(pageable));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch users by type", e);
+        }
     }
 
     // Update profile image
@@ -307,7 +642,9 @@ public class userService implements UserDetailsService {
                 User user = userOptional.get();
                 user.setProfileImageUrl(imageUrl);
                 user.setUpdatedAt(LocalDateTime.now());
-                return userRepository.save(user);
+                User saved = userRepository.save(user);
+                userCache.evict(userId);
+                return saved;
             } else {
                 throw new RuntimeException("User not found with ID: " + userId);
             }
@@ -317,20 +654,81 @@ public class userService implements UserDetailsService {
     }
 
     // Get user statistics
+    // Served from the in-memory snapshot; only the first call after startup hits the database
     public UserStats getUserStats() {
+        UserStats snapshot = statsSnapshot.get();
+        return snapshot != null ? snapshot : refreshUserStats();
+    }
+
+    /**
+     * Recompute statistics with a single aggregate query. Runs on a schedule to pick up changes
+     * the incremental updates can't see (logins ageing out of the active window, direct SQL).
+     */
+    @Scheduled(fixedRateString = "${app.stats.refresh-interval:60000}")
+    @Transactional(readOnly = true)
+    public UserStats refreshUserStats() {
         try {
-            long totalUsers = userRepository.count();
-            long farmers = countUsersByType(UserType.FARMER);
-            long herders = countUsersByType(UserType.HERDER);
-            long verifiedUsers = userRepository.countByVerifiedTrue();
-            long activeUsers = getActiveUsers().size();
-            
-            return new UserStats(totalUsers, farmers, herders, verifiedUsers, activeUsers);
+            UserRepository.UserStatsView view = userRepository.aggregateUserStats(LocalDateTime.now().minusDays(30));
+            UserStats stats = new UserStats(view.getTotalUsers(), view.getFarmers(), view.getHerders(),
+                    view.getVerifiedUsers(), view.getActiveUsers());
+            statsSnapshot.set(stats);
+            return stats;
         } catch (Exception e) {
             throw new RuntimeException("Failed to fetch user statistics", e);
         }
     }
 
+    // Apply a write's effect on the statistics once it has committed
+    private void adjustStatsAfterCommit(long total, long farmers, long herders, long verified) {
+        Runnable apply = () -> statsSnapshot.updateAndGet(current -> current == null ? null
+                : current.adjust(total, farmers, herders, verified));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    // A herder keeps no crop links and a farmer no livestock links, so catalog lookups match the type
+    private static void dropCatalogLinksOfOtherTypes(User user) {
+        if (user.getUserType() != UserType.FARMER) {
+            user.getCrops().clear();
+        }
+        if (user.getUserType() != UserType.HERDER) {
+            user.getLivestockTypes().clear();
+        }
+    }
+
+    // Move a user between the farmer and herder counts when its type changes
+    private void adjustTypeStatsAfterCommit(UserType previousType, UserType newType) {
+        if (previousType == newType) {
+            return;
+        }
+        adjustStatsAfterCommit(0,
+                typeDelta(newType, UserType.FARMER) - typeDelta(previousType, UserType.FARMER),
+                typeDelta(newType, UserType.HERDER) - typeDelta(previousType, UserType.HERDER), 0);
+    }
+
+    private static long typeDelta(UserType actual, UserType counted) {
+        return actual == counted ? 1 : 0;
+    }
+
+    // Clamp caller-supplied page sizes so no request can materialize the whole table
+    private static Pageable bounded(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return PageRequest.of(0, MAX_PAGE_SIZE);
+        }
+        if (pageable.getPageSize() > MAX_PAGE_SIZE) {
+            return PageRequest.of(pageable.getPageNumber(), MAX_PAGE_SIZE, pageable.getSort());
+        }
+        return pageable;
+    }
+
     // Inner class for user statistics
     public static class UserStats {
         private final long totalUsers;
@@ -353,28 +751,119 @@ public class userService implements UserDetailsService {
         public long getHerders() { return herders; }
         public long getVerifiedUsers() { return verifiedUsers; }
         public long getActiveUsers() { return activeUsers; }
+
+        UserStats adjust(long totalDelta, long farmersDelta, long herdersDelta, long verifiedDelta) {
+            return new UserStats(totalUsers + totalDelta, farmers + farmersDelta, herders + herdersDelta,
+                    verifiedUsers + verifiedDelta, activeUsers);
+        }
     }
-     public void cleanupExpiredVerificationCodes() {
-        List<User> usersWithExpiredCodes = userRepository.findByVerificationCodeExpiryBefore(LocalDateTime.now());
-        for (User user : usersWithExpiredCodes) {
-            if (!user.isVerified()) {
-                // Delete unverified users with expired codes
-                userRepository.delete(user);
-            } else {
-                // Just clear the verification code for verified users
-                user.clearVerificationCode();
-                userRepository.save(user);
+    /**
+     * Drop expired pending signups; run by the pending-signup-cleanup job. Returns how many were removed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int cleanupExpiredPendingSignups() {
+        if (enableDetailedCleanupLogging) {
+            log.debug("Starting cleanup - Current pending signups: {}", pendingSignupStore.size());
+        }
+
+        // Expired entries are dropped from the head of the store's expiry queue
+        int removed = pendingSignupStore.purgeExpired();
+
+        if (removed > 0) {
+            log.info("Removed {} expired pending signups. Remaining - Pending signups: {}",
+                    removed, pendingSignupStore.size());
+        } else if (enableDetailedCleanupLogging) {
+            log.debug("No expired pending signups found. Current - Pending signups: {}", pendingSignupStore.size());
+        }
+        return removed;
+    }
+
+    /**
+     * Delete unverified users whose code has expired and clear expired codes on verified ones.
+     *
+     * Runs in bounded batches, each in its own transaction, so no single statement holds locks on
+     * a large part of the table and concurrent runs on other nodes skip the rows already taken.
+     * Returns the number of rows processed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int cleanupExpiredVerificationCodes() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        int batchSize = Math.max(1, cleanupBatchSize);
+        int processed = 0;
+        for (int batch = 1; batch <= maxCleanupBatches; batch++) {
+            int[] counts = newTransaction.execute(status -> cleanupBatch(cutoff, batchSize));
+            int deleted = counts[0];
+            int cleared = counts[1];
+            processed += deleted + cleared;
+            if (deleted > 0 || cleared > 0) {
+                log.info("Verification code cleanup batch {}: deleted {} unverified users, cleared {} codes",
+                        batch, deleted, cleared);
+            }
+            if (deleted < batchSize && cleared < batchSize) {
+                break;
             }
         }
+        return processed;
+    }
+
+    // One batch of each kind; caches, grid and stats follow once the batch commits
+    private int[] cleanupBatch(LocalDateTime cutoff, int batchSize) {
+        List<VerificationCodeCleanup.DeletedUser> deleted = verificationCodeCleanup.deleteExpiredUnverified(cutoff, batchSize);
+        List<Long> deletedIds = new ArrayList<>(deleted.size());
+        long farmers = 0;
+        long herders = 0;
+        for (VerificationCodeCleanup.DeletedUser user : deleted) {
+            userCache.evict(user.id());
+            deletedIds.add(user.id());
+            farmers += typeDelta(user.userType(), UserType.FARMER);
+            herders += typeDelta(user.userType(), UserType.HERDER);
+        }
+        if (!deleted.isEmpty()) {
+            // Both register afterCommit, so a rolled-back batch leaves the grid and stats alone
+            conflictMatchingService.usersDeleted(deletedIds);
+            adjustStatsAfterCommit(-deleted.size(), -farmers, -herders, 0);
+        }
+
+        List<Long> cleared = verificationCodeCleanup.clearExpiredCodes(cutoff, batchSize);
+        cleared.forEach(userCache::evict);
+        return new int[] { deleted.size(), cleared.size() };
     }
+
     public User findByVerificationCode(String verificationCode) {
         return userRepository.findByVerificationCode(verificationCode).orElse(null);
     }
+
+    // Temporary signup hooks backed by the configured PendingSignupStore (memory or jdbc)
     void storeTemporarySignup(Map<String, String> userData, String verificationCode) {
+        String email = userData.get("email").trim().toLowerCase();
+        pendingSignupStore.put(new PendingSignup(
+            email,
+            userData.get("firstName"),
+            userData.get("lastName"),
+            userData.get("phoneNumber"),
+            encodePassword(userData.get("password")),
+            UserType.valueOf(userData.get("userType").toUpperCase()),
+            verificationCode,
+            System.currentTimeMillis() + pendingUserExpiryMinutes * 60_000L
+        ));
     }
+
     Map<String, String> verifyAndGetTemporarySignup(String email, String code) {
-        return null;
+        Optional<PendingSignup> pending = pendingSignupStore.find(email.trim().toLowerCase());
+        if (pending.isEmpty() || pending.get().isExpired() || !pending.get().codeMatches(code)) {
+            return null;
+        }
+        PendingSignup signup = pending.get();
+        Map<String, String> userData = new HashMap<>();
+        userData.put("email", signup.email());
+        userData.put("firstName", signup.firstName());
+        userData.put("lastName", signup.lastName());
+        userData.put("phoneNumber", signup.phoneNumber());
+        userData.put("userType", signup.userType().name());
+        return userData;
     }
+
     void clearTemporarySignup(String email) {
+        pendingSignupStore.remove(email.trim().toLowerCase());
     }
 }
\ No newline at end of file
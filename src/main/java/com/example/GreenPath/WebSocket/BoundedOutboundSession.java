@@ -0,0 +1,140 @@
+package com.example.GreenPath.WebSocket;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+/**
+ * Session whose sendMessage only enqueues; a single sender drains the queue to the socket.
+ * See OutboundQueueManager for the policies.
+ */
+class BoundedOutboundSession extends WebSocketSessionDecorator {
+
+    private final OutboundQueueManager manager;
+
+    // Conflated frames are keyed by subscription and destination, everything else by sequence
+    // number; re-putting an existing key keeps its place in the queue
+    private final LinkedHashMap<Object, OutboundQueueManager.Outbound> queue = new LinkedHashMap<>();
+    private long sequence;
+    private boolean draining;
+    private boolean closed;
+
+    // System.nanoTime() when the current socket write started, 0 when idle
+    private volatile long sendStartedNanos;
+
+    BoundedOutboundSession(WebSocketSession delegate, OutboundQueueManager manager) {
+        super(delegate);
+        this.manager = manager;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        long started = sendStartedNanos;
+        if (started != 0 && System.nanoTime() - started > manager.sendTimeLimitNanos()) {
+            closeSlowSession();
+            return;
+        }
+
+        OutboundQueueManager.Outbound outbound = manager.classify(message);
+        boolean startSender;
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+            Object key = outbound.conflationKey();
+            if (key != null && queue.containsKey(key)) {
+                queue.put(key, outbound);
+                manager.conflated();
+                return;
+            }
+            if (queue.size() >= manager.queueCapacity() && !makeRoomFor(outbound)) {
+                manager.droppedOnOverflow();
+                return;
+            }
+            queue.put(key != null ? key : sequence++, outbound);
+            manager.queued(1);
+            startSender = !draining;
+            draining = true;
+        }
+        if (startSender) {
+            manager.startSender(this::drain);
+        }
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        discardQueue();
+        super.close(status);
+    }
+
+    void discardQueue() {
+        synchronized (queue) {
+            closed = true;
+            manager.queued(-queue.size());
+            queue.clear();
+        }
+    }
+
+    // Caller holds the queue lock; returns false when the new frame should be dropped instead
+    private boolean makeRoomFor(OutboundQueueManager.Outbound incoming) {
+        if (!incoming.droppable()) {
+            return true;  // control frames may exceed the capacity
+        }
+        if (manager.overflowPolicy() == OutboundQueueManager.OverflowPolicy.DROP_NEWEST) {
+            return false;
+        }
+        Iterator<OutboundQueueManager.Outbound> iterator = queue.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().droppable()) {
+                iterator.remove();
+                manager.queued(-1);
+                manager.droppedOnOverflow();
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private void drain() {
+        while (true) {
+            WebSocketMessage<?> next;
+            synchronized (queue) {
+                Iterator<OutboundQueueManager.Outbound> iterator = queue.values().iterator();
+                if (closed || !iterator.hasNext()) {
+                    draining = false;
+                    return;
+                }
+                next = iterator.next().message();
+                iterator.remove();
+                manager.queued(-1);
+            }
+            sendStartedNanos = System.nanoTime();
+            try {
+                getDelegate().sendMessage(next);
+            } catch (IOException | RuntimeException e) {
+                manager.sendFailed(getId(), e);
+                discardQueue();
+                synchronized (queue) {
+                    draining = false;
+                }
+                return;
+            } finally {
+                sendStartedNanos = 0;
+            }
+        }
+    }
+
+    private void closeSlowSession() {
+        manager.closedSlowSession(getId());
+        try {
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            manager.sendFailed(getId(), e);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.GreenPath.WebSocket;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns the per-session outbound queues that sit between the STOMP broker and the socket.
+ *
+ * Every session gets a bounded queue drained by its own virtual thread, so a client on a slow
+ * link only delays itself. Broadcast frames on conflated destinations (latest herder position)
+ * replace the queued frame instead of adding another; when a queue is full the overflow policy
+ * decides which broadcast frame is dropped. Control frames (CONNECTED, RECEIPT, ERROR) are never
+ * dropped. A session whose current send exceeds the send-time limit is closed.
+ */
+@Slf4j
+@Component
+public class OutboundQueueManager {
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        DROP_NEWEST
+    }
+
+    // Parsed view of an outbound frame; conflationKey is null when the frame must not be conflated
+    record Outbound(WebSocketMessage<?> message, boolean droppable, String conflationKey) {
+    }
+
+    private static final String MESSAGE_FRAME = "MESSAGE\n";
+
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long sendTimeLimitNanos;
+    private final String[] conflatePatterns;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<String, BoundedOutboundSession> sessions = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ws-sender-", 0).factory());
+
+    private final AtomicLong queuedMessages = new AtomicLong();
+    private final Counter droppedOverflow;
+    private final Counter conflated;
+    private final Counter sendFailures;
+    private final Counter slowSessionsClosed;
+
+    public OutboundQueueManager(MeterRegistry meterRegistry,
+                                @Value("${app.websocket.backpressure.queue-capacity:256}") int queueCapacity,
+                                @Value("${app.websocket.backpressure.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+                                @Value("${app.websocket.backpressure.conflate-destinations:/topic/herders/*/position}") String[] conflatePatterns,
+                                @Value("${app.websocket.send-time-limit-ms:10000}") long sendTimeLimitMs) {
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.conflatePatterns = conflatePatterns;
+        this.sendTimeLimitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMs);
+
+        Gauge.builder("greenpath.websocket.outbound.queued", queuedMessages, AtomicLong::get)
+                .description("Frames waiting in per-session outbound queues")
+                .register(meterRegistry);
+        Gauge.builder("greenpath.websocket.sessions", sessions, Map::size)
+                .description("Open WebSocket sessions")
+                .register(meterRegistry);
+        this.droppedOverflow = Counter.builder("greenpath.websocket.outbound.dropped")
+                .tag("reason", "overflow").register(meterRegistry);
+        this.conflated = Counter.builder("greenpath.websocket.outbound.dropped")
+                .tag("reason", "conflated").register(meterRegistry);
+        this.sendFailures = Counter.builder("greenpath.websocket.outbound.send.failures")
+                .register(meterRegistry);
+        this.slowSessionsClosed = Counter.builder("greenpath.websocket.sessions.closed.slow")
+                .description("Sessions closed for exceeding the send-time limit")
+                .register(meterRegistry);
+    }
+
+    public WebSocketSession wrap(WebSocketSession session) {
+        BoundedOutboundSession bounded = new BoundedOutboundSession(session, this);
+        sessions.put(session.getId(), bounded);
+        return bounded;
+    }
+
+    public void release(String sessionId) {
+        BoundedOutboundSession bounded = sessions.remove(sessionId);
+        if (bounded != null) {
+            bounded.discardQueue();
+        }
+    }
+
+    public long getQueuedMessages() {
+        return queuedMessages.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    Outbound classify(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text) || !text.getPayload().startsWith(MESSAGE_FRAME)) {
+            return new Outbound(message, false, null);
+        }
+        String payload = text.getPayload();
+        String destination = null;
+        String subscription = null;
+        int lineStart = MESSAGE_FRAME.length();
+        while (lineStart < payload.length()) {
+            int lineEnd = payload.indexOf('\n', lineStart);
+            if (lineEnd < 0 || lineEnd == lineStart) {
+                break;  // blank line ends the headers
+            }
+            String line = payload.substring(lineStart, lineEnd);
+            if (line.startsWith("destination:")) {
+                destination = line.substring("destination:".length());
+            } else if (line.startsWith("subscription:")) {
+                subscription = line.substring("subscription:".length());
+            }
+            lineStart = lineEnd + 1;
+        }
+        return new Outbound(message, true, isConflated(destination) ? subscription + "|" + destination : null);
+    }
+
+    private boolean isConflated(String destination) {
+        if (destination == null) {
+            return false;
+        }
+        for (String pattern : conflatePatterns) {
+            if (pathMatcher.match(pattern.trim(), destination)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int queueCapacity() {
+        return queueCapacity;
+    }
+
+    OverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    long sendTimeLimitNanos() {
+        return sendTimeLimitNanos;
+    }
+
+    void startSender(Runnable drain) {
+        senders.execute(drain);
+    }
+
+    void queued(int delta) {
+        queuedMessages.addAndGet(delta);
+    }
+
+    void droppedOnOverflow() {
+        droppedOverflow.increment();
+    }
+
+    void conflated() {
+        conflated.increment();
+    }
+
+    void sendFailed(String sessionId, Exception e) {
+        sendFailures.increment();
+        log.debug("WebSocket send failed for session {}: {}", sessionId, e.getMessage());
+    }
+
+    void closedSlowSession(String sessionId) {
+        slowSessionsClosed.increment();
+        log.info("Closed WebSocket session {} after exceeding the send-time limit", sessionId);
+    }
+}
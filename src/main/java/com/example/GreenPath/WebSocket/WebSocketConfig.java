@@ -0,0 +1,131 @@
+package com.example.GreenPath.WebSocket;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import com.example.GreenPath.Security.AuthenticatedUsers;
+
+/**
+ * STOMP over WebSocket for live grazing routes and proximity alerts.
+ *
+ * Herders send to {destination-prefix}/herders/position; subscribers listen on
+ * {broker-prefix}/herders/{id}/position and {broker-prefix}/farmers/{id}/alerts. The in-memory
+ * broker fans out on the outbound channel pool into per-session bounded queues, so one slow
+ * client only delays itself.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Autowired
+    private OutboundQueueManager outboundQueueManager;
+
+    @Value("${app.websocket.endpoint:/ws}")
+    private String endpoint;
+
+    @Value("${app.websocket.destination-prefix:/app}")
+    private String destinationPrefix;
+
+    @Value("${app.websocket.broker-prefix:/topic}")
+    private String brokerPrefix;
+
+    @Value("${app.websocket.send-buffer-size-kb:512}")
+    private int sendBufferSizeKb;
+
+    @Value("${app.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${app.websocket.message-size-limit-kb:64}")
+    private int messageSizeLimitKb;
+
+    @Value("${app.websocket.outbound-threads:8}")
+    private int outboundThreads;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint(endpoint);
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker(brokerPrefix);
+        registry.setApplicationDestinationPrefixes(destinationPrefix);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferSizeKb * 1024);
+        registration.setSendTimeLimit(sendTimeLimitMs);
+        registration.setMessageSizeLimit(messageSizeLimitKb * 1024);
+        // Give every session its own bounded outbound queue (see OutboundQueueManager)
+        registration.addDecoratorFactory(handler -> new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(outboundQueueManager.wrap(session));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                outboundQueueManager.release(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        });
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor().corePoolSize(outboundThreads).maxPoolSize(outboundThreads);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new FarmerAlertSubscriptionGuard());
+    }
+
+    // Farmers may only subscribe to their own alert topic, and nobody may subscribe by pattern
+    private final class FarmerAlertSubscriptionGuard implements ChannelInterceptor {
+
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+            if (accessor == null || accessor.getCommand() != StompCommand.SUBSCRIBE) {
+                return message;
+            }
+            String destination = accessor.getDestination();
+            // The simple broker treats destinations as Ant patterns; a wildcard could match other farmers' topics
+            if (destination == null || destination.contains("*") || destination.contains("?") || destination.contains("{")) {
+                throw new MessageDeliveryException(message, "Wildcard subscriptions are not allowed");
+            }
+            String farmersPrefix = brokerPrefix + "/farmers/";
+            if (!destination.startsWith(farmersPrefix)) {
+                return message;
+            }
+
+            int end = destination.indexOf('/', farmersPrefix.length());
+            String requestedId = end < 0 ? destination.substring(farmersPrefix.length())
+                    : destination.substring(farmersPrefix.length(), end);
+            Long userId = AuthenticatedUsers.userId(accessor.getUser());
+            if (userId == null || !requestedId.equals(userId.toString())) {
+                throw new MessageDeliveryException(message, "Not allowed to subscribe to " + destination);
+            }
+            return message;
+        }
+    }
+}
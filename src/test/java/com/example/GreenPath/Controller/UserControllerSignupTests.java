@@ -0,0 +1,134 @@
+package com.example.GreenPath.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.GreenPath.DTO.PendingSignup;
+import com.example.GreenPath.Logging.RequestSummaryLog;
+import com.example.GreenPath.Security.RateLimitDecision;
+import com.example.GreenPath.Security.SignupRateLimiter;
+import com.example.GreenPath.Service.AuthMetrics;
+import com.example.GreenPath.Service.InMemoryPendingSignupStore;
+import com.example.GreenPath.Service.MailDispatchService;
+import com.example.GreenPath.Service.userService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UserControllerSignupTests {
+
+	private static final String EMAIL = "farmer@example.com";
+
+	@Mock
+	private userService userService;
+
+	@Mock
+	private MailDispatchService mailDispatchService;
+
+	@Mock
+	private SignupRateLimiter signupRateLimiter;
+
+	private InMemoryPendingSignupStore pendingSignupStore;
+	private User_Controller controller;
+
+	@BeforeEach
+	void setUp() {
+		pendingSignupStore = new InMemoryPendingSignupStore(100);
+		controller = new User_Controller();
+		ReflectionTestUtils.setField(controller, "userService", userService);
+		ReflectionTestUtils.setField(controller, "mailDispatchService", mailDispatchService);
+		ReflectionTestUtils.setField(controller, "pendingSignupStore", pendingSignupStore);
+		ReflectionTestUtils.setField(controller, "signupRateLimiter", signupRateLimiter);
+		ReflectionTestUtils.setField(controller, "authMetrics",
+				new AuthMetrics(new SimpleMeterRegistry(), pendingSignupStore, new RequestSummaryLog(1.0)));
+		ReflectionTestUtils.setField(controller, "pendingUserExpiryMinutes", 15);
+		ReflectionTestUtils.setField(controller, "signupDedupWindowMs", 120_000L);
+
+		when(signupRateLimiter.tryAcquire(anyString(), anyString())).thenReturn(RateLimitDecision.ALLOWED);
+		when(userService.emailExists(EMAIL)).thenReturn(false);
+		when(userService.encodePassword("secret")).thenReturn("hash");
+		when(mailDispatchService.enqueueVerificationEmail(eq(EMAIL), anyString())).thenReturn(true);
+	}
+
+	@Test
+	void repeatSignupReusesCodeAndSkipsDeliveredEmail() {
+		when(mailDispatchService.getStatus(EMAIL)).thenReturn(MailDispatchService.DispatchStatus.SENT);
+
+		assertTrue(signup().getStatusCode().is2xxSuccessful());
+		PendingSignup first = pendingSignupStore.find(EMAIL).orElseThrow();
+
+		assertTrue(signup().getStatusCode().is2xxSuccessful());
+		PendingSignup second = pendingSignupStore.find(EMAIL).orElseThrow();
+
+		assertEquals(first.verificationCode(), second.verificationCode());
+		assertEquals(first.expiresAtMillis(), second.expiresAtMillis());
+		verify(mailDispatchService, times(1)).enqueueVerificationEmail(eq(EMAIL), anyString());
+	}
+
+	@Test
+	void repeatSignupCannotReplaceStoredDetails() {
+		when(mailDispatchService.getStatus(EMAIL)).thenReturn(MailDispatchService.DispatchStatus.SENT);
+
+		signup();
+		PendingSignup first = pendingSignupStore.find(EMAIL).orElseThrow();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/user/signup");
+		request.setRemoteAddr("198.51.100.9");
+		assertTrue(controller.processSignup("Mallory", "X", EMAIL, "0799999999", "attacker", "herder", request)
+				.getStatusCode().is2xxSuccessful());
+
+		assertEquals(first, pendingSignupStore.find(EMAIL).orElseThrow());
+		assertEquals("hash", pendingSignupStore.find(EMAIL).orElseThrow().passwordHash());
+		verify(userService, never()).encodePassword("attacker");
+	}
+
+	@Test
+	void repeatSignupResendsSameCodeWhenDeliveryFailed() {
+		when(mailDispatchService.getStatus(EMAIL)).thenReturn(MailDispatchService.DispatchStatus.FAILED);
+
+		signup();
+		signup();
+
+		ArgumentCaptor<String> codes = ArgumentCaptor.forClass(String.class);
+		verify(mailDispatchService, times(2)).enqueueVerificationEmail(eq(EMAIL), codes.capture());
+		List<String> sent = codes.getAllValues();
+		assertEquals(sent.get(0), sent.get(1));
+		assertEquals(sent.get(1), pendingSignupStore.find(EMAIL).orElseThrow().verificationCode());
+		verify(userService, times(1)).encodePassword("secret");
+	}
+
+	@Test
+	void signupOutsideDedupWindowSendsAgain() {
+		ReflectionTestUtils.setField(controller, "signupDedupWindowMs", 0L);
+
+		signup();
+		signup();
+
+		verify(mailDispatchService, never()).getStatus(anyString());
+		verify(mailDispatchService, times(2)).enqueueVerificationEmail(eq(EMAIL), anyString());
+	}
+
+	private ResponseEntity<?> signup() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/user/signup");
+		request.setRemoteAddr("203.0.113.7");
+		return controller.processSignup("Ada", "Obi", EMAIL, "0700000000", "secret", "farmer", request);
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.GreenPath.Security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class SlidingWindowRateLimiterTests {
+
+	private static final long BASE = 1_000_000;
+
+	@Test
+	void rejectsOverLimitUntilWindowEnds() {
+		SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, 1000, 1, 100, BASE);
+
+		assertEquals(0, limiter.tryAcquire("a", BASE + 100));
+		assertEquals(0, limiter.tryAcquire("a", BASE + 200));
+		assertEquals(0, limiter.tryAcquire("a", BASE + 300));
+		assertEquals(700, limiter.tryAcquire("a", BASE + 300));
+	}
+
+	@Test
+	void weightsPreviousWindowByRemainingOverlap() {
+		SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 1000, 1, 100, BASE);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(0, limiter.tryAcquire("a", BASE + 500));
+		}
+
+		// At the start of the next window the previous one still counts in full
+		assertEquals(1000, limiter.tryAcquire("a", BASE + 1000));
+
+		// Halfway through, it counts for 5, leaving room for 5 more
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0, limiter.tryAcquire("a", BASE + 1500));
+		}
+		assertEquals(500, limiter.tryAcquire("a", BASE + 1500));
+	}
+
+	@Test
+	void forgetsCountsOlderThanPreviousWindow() {
+		SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(2, 1000, 1, 100, BASE);
+		limiter.tryAcquire("a", BASE);
+		limiter.tryAcquire("a", BASE);
+
+		assertEquals(0, limiter.tryAcquire("a", BASE + 2000));
+		assertEquals(0, limiter.tryAcquire("a", BASE + 2000));
+	}
+
+	@Test
+	void evictIdleDropsKeysUnusedForTwoWindows() {
+		SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(2, 1000, 2, 100, BASE);
+		limiter.tryAcquire("a", BASE);
+		limiter.tryAcquire("b", BASE + 1000);
+
+		assertEquals(0, limiter.evictIdle(BASE + 1999));
+		assertEquals(1, limiter.evictIdle(BASE + 2000));
+		assertEquals(1, limiter.size());
+	}
+
+	@Test
+	void fullShardNeverEvictsKeyStillCounted() {
+		SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(1, 1000, 1, 2, BASE);
+		limiter.tryAcquire("victim", BASE);
+		limiter.tryAcquire("b", BASE + 1000);
+
+		// Fresh keys share the overflow counter rather than resetting a limited key
+		assertEquals(0, limiter.tryAcquire("fresh-1", BASE + 1100));
+		assertEquals(900, limiter.tryAcquire("fresh-2", BASE + 1100));
+		assertEquals(2, limiter.size());
+		assertEquals(900, limiter.tryAcquire("victim", BASE + 1100));
+	}
+
+	@Test
+	void fullShardEvictsIdleKey() {
+		SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(1, 1000, 1, 2, BASE);
+		limiter.tryAcquire("a", BASE);
+		limiter.tryAcquire("b", BASE + 2000);
+
+		assertEquals(0, limiter.tryAcquire("c", BASE + 2100));
+		assertEquals(2, limiter.size());
+		// c has its own counter, and b was kept
+		assertEquals(900, limiter.tryAcquire("c", BASE + 2100));
+		assertEquals(900, limiter.tryAcquire("b", BASE + 2100));
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.GreenPath.Security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketLimiterTests {
+
+	private long start;
+
+	@BeforeEach
+	void setUp() {
+		start = System.currentTimeMillis() + 1000;
+	}
+
+	@Test
+	void grantsCapacityThenReportsWaitForNextToken() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(3, 1000, 1, 100);
+
+		assertEquals(0, limiter.tryAcquire("a", start));
+		assertEquals(0, limiter.tryAcquire("a", start));
+		assertEquals(0, limiter.tryAcquire("a", start));
+		assertEquals(1000, limiter.tryAcquire("a", start));
+		assertEquals(400, limiter.tryAcquire("a", start + 600));
+	}
+
+	@Test
+	void keepsFractionalRefillBetweenGrants() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1000, 1, 100);
+		limiter.tryAcquire("a", start);
+		limiter.tryAcquire("a", start);
+
+		// 1.5 tokens refilled: one is spent, the half carries over
+		assertEquals(0, limiter.tryAcquire("a", start + 1500));
+		assertEquals(0, limiter.tryAcquire("a", start + 2000));
+		assertEquals(1000, limiter.tryAcquire("a", start + 2000));
+	}
+
+	@Test
+	void refillStopsAtCapacity() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1000, 1, 100);
+		limiter.tryAcquire("a", start);
+		limiter.tryAcquire("a", start);
+
+		long later = start + 3_600_000;
+		assertEquals(0, limiter.tryAcquire("a", later));
+		assertEquals(0, limiter.tryAcquire("a", later));
+		assertEquals(1000, limiter.tryAcquire("a", later));
+	}
+
+	@Test
+	void keysHaveSeparateBuckets() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1000, 4, 100);
+
+		assertEquals(0, limiter.tryAcquire("a", start));
+		assertTrue(limiter.tryAcquire("a", start) > 0);
+		assertEquals(0, limiter.tryAcquire("b", start));
+	}
+
+	@Test
+	void evictIdleDropsOnlyRefilledBuckets() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1000, 2, 100);
+		limiter.tryAcquire("a", start);
+		limiter.tryAcquire("b", start + 1000);
+
+		assertEquals(0, limiter.evictIdle(start + 500));
+		assertEquals(1, limiter.evictIdle(start + 1000));
+		assertEquals(1, limiter.size());
+		assertEquals(1, limiter.evictIdle(start + 2000));
+		assertEquals(0, limiter.size());
+	}
+
+	@Test
+	void fullShardNeverEvictsLimitingBucket() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1000, 1, 2);
+		limiter.tryAcquire("victim", start);
+		limiter.tryAcquire("b", start + 500);
+
+		// Fresh keys can't push out the empty buckets; they share the overflow bucket instead
+		assertEquals(0, limiter.tryAcquire("fresh-1", start + 600));
+		assertEquals(900, limiter.tryAcquire("fresh-2", start + 700));
+		assertEquals(2, limiter.size());
+		assertEquals(300, limiter.tryAcquire("victim", start + 700));
+	}
+
+	@Test
+	void fullShardPrefersRefilledBucket() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1000, 1, 2);
+		limiter.tryAcquire("a", start);
+		limiter.tryAcquire("b", start + 1500);
+
+		// a has refilled to capacity, so it makes room for c; b keeps its (empty) bucket
+		assertEquals(0, limiter.tryAcquire("c", start + 1600));
+		assertEquals(900, limiter.tryAcquire("b", start + 1600));
+		assertEquals(900, limiter.tryAcquire("c", start + 1700));
+	}
+}
@@ -0,0 +1,134 @@
+package com.example.GreenPath.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.GreenPath.DTO.ConflictPair;
+import com.example.GreenPath.DTO.ConflictZoneReport;
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Model.UserType;
+import com.example.GreenPath.Repository.UserRepository;
+
+class ConflictMatchingServiceTests {
+
+	private static final int MAX_REPORT_PAIRS = 10;
+
+	private ConflictMatchingService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new ConflictMatchingService(mock(UserRepository.class), mock(PlatformTransactionManager.class),
+				10, 4, MAX_REPORT_PAIRS, 50);
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void reportKeepsClosestPairsAcrossForkedTasks() {
+		service.userChanged(herder(5000, 0, 0, 0));
+		// More farms than one task sweeps, so partial results are merged
+		for (int i = 1; i <= 1200; i++) {
+			service.userChanged(farmer(i, i * 0.0001, 0));
+		}
+
+		ConflictZoneReport report = service.buildConflictReport(20);
+
+		assertEquals(1200, report.totalPairs());
+		assertEquals(MAX_REPORT_PAIRS, report.pairs().size());
+		assertTrue(report.isTruncated());
+		for (int i = 0; i < MAX_REPORT_PAIRS; i++) {
+			assertEquals(i + 1, report.pairs().get(i).farmerId());
+		}
+	}
+
+	@Test
+	void mergeClosestKeepsOrderAndLimit() {
+		List<ConflictPair> left = List.of(pair(1, 1.0), pair(3, 3.0), pair(5, 5.0));
+		List<ConflictPair> right = List.of(pair(2, 2.0), pair(4, 4.0));
+
+		assertEquals(List.of(pair(1, 1.0), pair(2, 2.0), pair(3, 3.0), pair(4, 4.0)),
+				ConflictMatchingService.mergeClosest(left, right, 4));
+		assertEquals(5, ConflictMatchingService.mergeClosest(left, right, 100).size());
+		assertEquals(List.of(pair(2, 2.0)), ConflictMatchingService.mergeClosest(List.of(), right, 1));
+	}
+
+	@Test
+	void distanceIsMeasuredToEdgeOfGrazingArea() {
+		service.userChanged(herder(100, 0, 0, 5));
+		service.userChanged(farmer(1, 0.09, 0));
+
+		List<ConflictPair> pairs = service.findConflictsForFarm(1, 0.09, 0, 6);
+
+		assertEquals(1, pairs.size());
+		assertEquals(10.0 - 5, pairs.get(0).distanceKm(), 0.1);
+	}
+
+	@Test
+	void findsConflictAcrossAntimeridian() {
+		service.userChanged(herder(100, 10, -179.98, 1));
+
+		List<ConflictPair> pairs = service.findConflictsForFarm(1, 10, 179.98, 5);
+
+		assertEquals(1, pairs.size());
+		assertEquals(100, pairs.get(0).herderId());
+	}
+
+	@Test
+	void movedAndDeletedUsersLeaveTheGrid() {
+		service.userChanged(herder(100, 0, 0, 0));
+		service.userChanged(farmer(1, 0.01, 0));
+		assertEquals(1, service.buildConflictReport(5).totalPairs());
+
+		service.userChanged(farmer(1, 40, 40));
+		assertEquals(0, service.buildConflictReport(5).totalPairs());
+
+		service.userChanged(farmer(1, 0.01, 0));
+		service.userDeleted(100L);
+		assertEquals(0, service.buildConflictReport(5).totalPairs());
+	}
+
+	@Test
+	void batchDeleteLeavesTheGridOnlyAfterCommit() {
+		service.userChanged(herder(100, 0, 0, 0));
+		service.userChanged(herder(101, 0, 0.02, 0));
+		service.userChanged(farmer(1, 0.01, 0));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			service.usersDeleted(List.of(100L, 101L));
+			assertEquals(2, service.buildConflictReport(5).totalPairs());
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertEquals(0, service.buildConflictReport(5).totalPairs());
+	}
+
+	private static User farmer(long id, double latitude, double longitude) {
+		return User.builder().id(id).userType(UserType.FARMER)
+				.farmLatitude(latitude).farmLongitude(longitude).build();
+	}
+
+	private static User herder(long id, double latitude, double longitude, double radiusKm) {
+		return User.builder().id(id).userType(UserType.HERDER)
+				.grazingLatitude(latitude).grazingLongitude(longitude).grazingRadiusKm(radiusKm).build();
+	}
+
+	private static ConflictPair pair(long farmerId, double distanceKm) {
+		return new ConflictPair(farmerId, 100, distanceKm);
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.GreenPath.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class GeoMathTests {
+
+	@Test
+	void oneDegreeOfLatitudeIsAbout111Km() {
+		assertEquals(111.195, GeoMath.haversineKm(0, 0, 1, 0), 0.01);
+		assertEquals(1.0, GeoMath.latitudeDelta(111.195), 0.001);
+	}
+
+	@Test
+	void distanceAcrossAntimeridianIsShort() {
+		double distance = GeoMath.haversineKm(0, 179.99, 0, -179.99);
+		assertEquals(2.22, distance, 0.01);
+		assertEquals(distance, GeoMath.haversineKm(0, -179.99, 0, 179.99), 1e-9);
+	}
+
+	@Test
+	void distanceOverPoleIsShort() {
+		// Two points 0.1 degrees from the north pole on opposite meridians
+		assertEquals(22.24, GeoMath.haversineKm(89.9, 0, 89.9, 180), 0.01);
+	}
+
+	@Test
+	void longitudeDeltaWidensTowardsPoles() {
+		assertEquals(GeoMath.latitudeDelta(10), GeoMath.longitudeDelta(0, 10), 1e-9);
+		assertEquals(2 * GeoMath.latitudeDelta(10), GeoMath.longitudeDelta(60, 10), 1e-9);
+		assertEquals(180.0, GeoMath.longitudeDelta(90, 10));
+		assertEquals(180.0, GeoMath.longitudeDelta(89.99, 10));
+	}
+
+	@Test
+	void validatesCoordinateRanges() {
+		assertTrue(GeoMath.isValid(-90.0, 180.0));
+		assertFalse(GeoMath.isValid(90.5, 0.0));
+		assertFalse(GeoMath.isValid(0.0, -180.5));
+		assertFalse(GeoMath.isValid(null, 0.0));
+	}
+}
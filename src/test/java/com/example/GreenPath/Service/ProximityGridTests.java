@@ -0,0 +1,82 @@
+package com.example.GreenPath.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.GreenPath.Model.UserType;
+
+class ProximityGridTests {
+
+	private final ProximityGrid grid = new ProximityGrid(10);
+
+	@Test
+	void findsNeighbourAcrossAntimeridian() {
+		grid.put(farm(1, 0, 179.99));
+		grid.put(farm(2, 0, 170));
+
+		assertEquals(Set.of(1L), candidates(0, -179.99, 5));
+	}
+
+	@Test
+	void findsNeighbourOverPole() {
+		grid.put(farm(1, 89.9, 0));
+		grid.put(farm(2, 80, 0));
+
+		// 22 km apart over the pole, in longitude cells on the far side of the grid
+		assertEquals(Set.of(1L), candidates(89.9, 180, 30));
+	}
+
+	@Test
+	void queryAtPoleClampsLatitude() {
+		grid.put(farm(1, 90, 45));
+		grid.put(farm(2, -90, 45));
+
+		assertEquals(Set.of(1L), candidates(90, 0, 10));
+		assertEquals(Set.of(2L), candidates(-90, 0, 10));
+	}
+
+	@Test
+	void movingUserLeavesOldCell() {
+		grid.put(farm(1, 10, 10));
+		grid.put(farm(1, 20, 20));
+
+		assertTrue(candidates(10, 10, 5).isEmpty());
+		assertEquals(Set.of(1L), candidates(20, 20, 5));
+		assertEquals(1, grid.size());
+		assertEquals(1, grid.cellCount());
+	}
+
+	@Test
+	void removingLastEntryDropsCell() {
+		grid.put(farm(1, 10, 10));
+		grid.put(new ProximityGrid.Entry(2, UserType.HERDER, 10, 10.001, 5));
+		grid.remove(1);
+
+		assertEquals(1, grid.cellCount());
+		assertEquals(0, grid.entries(UserType.FARMER).size());
+		assertEquals(1, grid.entries(UserType.HERDER).size());
+
+		grid.remove(2);
+		assertEquals(0, grid.cellCount());
+		assertEquals(0, grid.size());
+	}
+
+	private Set<Long> candidates(double latitude, double longitude, double radiusKm) {
+		Set<Long> ids = new HashSet<>();
+		grid.forEachCandidate(latitude, longitude, radiusKm, entry -> {
+			if (GeoMath.haversineKm(latitude, longitude, entry.latitude(), entry.longitude()) <= radiusKm) {
+				ids.add(entry.userId());
+			}
+		});
+		return ids;
+	}
+
+	private static ProximityGrid.Entry farm(long id, double latitude, double longitude) {
+		return new ProximityGrid.Entry(id, UserType.FARMER, latitude, longitude, 0);
+	}
+}
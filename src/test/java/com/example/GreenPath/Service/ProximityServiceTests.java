@@ -0,0 +1,176 @@
+package com.example.GreenPath.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.GreenPath.DTO.NearbyUser;
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Model.UserType;
+import com.example.GreenPath.Repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProximityServiceTests {
+
+	// Degrees of latitude per kilometre
+	private static final double DEG_PER_KM = GeoMath.latitudeDelta(1);
+
+	@Mock
+	private UserRepository userRepository;
+
+	private final List<User> farmers = new ArrayList<>();
+	private final List<User> herders = new ArrayList<>();
+	private ProximityService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new ProximityService();
+		ReflectionTestUtils.setField(service, "userRepository", userRepository);
+		ReflectionTestUtils.setField(service, "maxGrazingRadiusKm", 50.0);
+		ReflectionTestUtils.setField(service, "knnInitialRadiusKm", 10.0);
+		ReflectionTestUtils.setField(service, "maxSearchRadiusKm", 500.0);
+	}
+
+	@Test
+	void radiusQueryDropsBoxCornersOutsideTheCircle() {
+		stubFarmers();
+		farmers.add(farmer(1, 5 * DEG_PER_KM, 0));
+		// Inside the 10 km box but about 12.7 km away diagonally
+		farmers.add(farmer(2, 9 * DEG_PER_KM, 9 * DEG_PER_KM));
+		farmers.add(farmer(3, 2 * DEG_PER_KM, 0));
+
+		List<NearbyUser> found = service.findFarmersWithin(0, 0, 10);
+
+		assertEquals(List.of(3L, 1L), ids(found));
+		assertEquals(2, found.get(0).distanceKm(), 0.01);
+		assertEquals(5, found.get(1).distanceKm(), 0.01);
+	}
+
+	@Test
+	void herderBoxIsWidenedByMaxGrazingRadius() {
+		stubHerders();
+
+		service.findHerdersWithin(0, 0, 6);
+
+		ArgumentCaptor<Double> maxLat = ArgumentCaptor.forClass(Double.class);
+		verify(userRepository).findHerdersInBox(anyDouble(), maxLat.capture(), anyDouble(), anyDouble());
+		assertEquals((6 + 50) * DEG_PER_KM, maxLat.getValue(), 1e-9);
+	}
+
+	@Test
+	void herderDistanceIsMeasuredToEdgeOfGrazingCircle() {
+		stubHerders();
+		herders.add(herder(100, 10 * DEG_PER_KM, 0.0, 5.0));
+		// Centre 40 km away, but its 45 km circle covers the point
+		herders.add(herder(101, 0.0, 40 * DEG_PER_KM, 45.0));
+		herders.add(herder(102, 20 * DEG_PER_KM, 0.0, 5.0));
+
+		List<NearbyUser> found = service.findHerdersWithin(0, 0, 6);
+
+		assertEquals(List.of(101L, 100L), ids(found));
+		assertEquals(0, found.get(0).distanceKm(), 1e-9);
+		assertEquals(5, found.get(1).distanceKm(), 0.01);
+	}
+
+	@Test
+	void grazingRadiusIsClampedToMax() {
+		stubHerders();
+		herders.add(herder(100, 100 * DEG_PER_KM, 0.0, 500.0));
+
+		List<NearbyUser> found = service.findHerdersWithin(0, 0, 60);
+
+		assertEquals(List.of(100L), ids(found));
+		assertEquals(50, found.get(0).distanceKm(), 0.01);
+	}
+
+	@Test
+	void nearestWidensRadiusUntilKFound() {
+		stubFarmers();
+		farmers.add(farmer(1, 300 * DEG_PER_KM, 0));
+		farmers.add(farmer(2, 30 * DEG_PER_KM, 0));
+		farmers.add(farmer(3, 5 * DEG_PER_KM, 0));
+
+		List<NearbyUser> found = service.findNearestFarmers(0, 0, 2);
+
+		assertEquals(List.of(3L, 2L), ids(found));
+		// 10 km finds one, 20 km still one, 40 km finds two
+		verify(userRepository, times(3)).findFarmersInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+	}
+
+	@Test
+	void nearestStopsAtMaxSearchRadius() {
+		stubFarmers();
+		farmers.add(farmer(1, 5 * DEG_PER_KM, 0));
+		farmers.add(farmer(2, 600 * DEG_PER_KM, 0));
+
+		assertEquals(List.of(1L), ids(service.findNearestFarmers(0, 0, 5)));
+		assertTrue(service.findNearestFarmers(0, 0, 0).isEmpty());
+	}
+
+	@Test
+	void farmsNearGrazingAreaCountFromItsEdge() {
+		stubFarmers();
+		farmers.add(farmer(1, 12 * DEG_PER_KM, 0));
+		farmers.add(farmer(2, 20 * DEG_PER_KM, 0));
+
+		List<NearbyUser> found = service.findFarmersNearGrazingArea(herder(100, 0.0, 0.0, 5.0), 10);
+
+		assertEquals(List.of(1L), ids(found));
+		assertTrue(service.findFarmersNearGrazingArea(herder(101, null, null, 5.0), 10).isEmpty());
+	}
+
+	// The mocked repository applies the same bounding-box filter as the JPQL query
+	private void stubFarmers() {
+		when(userRepository.findFarmersInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+				.thenAnswer(inBox(farmers, User::getFarmLatitude, User::getFarmLongitude));
+	}
+
+	private void stubHerders() {
+		when(userRepository.findHerdersInBox(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+				.thenAnswer(inBox(herders, User::getGrazingLatitude, User::getGrazingLongitude));
+	}
+
+	private static Answer<List<User>> inBox(List<User> users, Function<User, Double> latitude,
+			Function<User, Double> longitude) {
+		return invocation -> {
+			double minLat = invocation.getArgument(0);
+			double maxLat = invocation.getArgument(1);
+			double minLon = invocation.getArgument(2);
+			double maxLon = invocation.getArgument(3);
+			return users.stream()
+					.filter(u -> latitude.apply(u) >= minLat && latitude.apply(u) <= maxLat
+							&& longitude.apply(u) >= minLon && longitude.apply(u) <= maxLon)
+					.toList();
+		};
+	}
+
+	private static List<Long> ids(List<NearbyUser> found) {
+		return found.stream().map(n -> n.user().getId()).toList();
+	}
+
+	private static User farmer(long id, double latitude, double longitude) {
+		return User.builder().id(id).userType(UserType.FARMER)
+				.farmLatitude(latitude).farmLongitude(longitude).build();
+	}
+
+	private static User herder(long id, Double latitude, Double longitude, Double radiusKm) {
+		return User.builder().id(id).userType(UserType.HERDER)
+				.grazingLatitude(latitude).grazingLongitude(longitude).grazingRadiusKm(radiusKm).build();
+	}
+}
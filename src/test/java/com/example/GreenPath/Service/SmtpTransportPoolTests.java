@@ -0,0 +1,106 @@
+package com.example.GreenPath.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.angus.mail.smtp.SMTPTransport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Provider;
+import jakarta.mail.Session;
+import jakarta.mail.URLName;
+import jakarta.mail.internet.MimeMessage;
+
+class SmtpTransportPoolTests {
+
+	// Registered as the session's smtp provider so the tests can count SMTP connections
+	public static class CountingTransport extends SMTPTransport {
+
+		static final AtomicInteger connects = new AtomicInteger();
+
+		public CountingTransport(Session session, URLName urlname) {
+			super(session, urlname);
+		}
+
+		@Override
+		protected synchronized boolean protocolConnect(String host, int port, String user, String password)
+				throws MessagingException {
+			connects.incrementAndGet();
+			return super.protocolConnect(host, port, user, password);
+		}
+	}
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private JavaMailSenderImpl mailSender;
+	private SmtpTransportPool pool;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(ServerSetupTest.SMTP.getPort());
+		mailSender.setProtocol("smtp");
+		Session session = Session.getInstance(new Properties());
+		session.setProvider(new Provider(Provider.Type.TRANSPORT, "smtp", CountingTransport.class.getName(), "test", null));
+		mailSender.setSession(session);
+		CountingTransport.connects.set(0);
+		pool = new SmtpTransportPool(mailSender, 1, 60000, 5000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.closeAll();
+	}
+
+	@Test
+	void sendsBatchesOverPooledConnection() throws Exception {
+		List<MimeMessage> failed = pool.sendAll(List.of(message("a@example.com"), message("b@example.com")));
+		assertTrue(failed.isEmpty());
+
+		failed = pool.sendAll(List.of(message("c@example.com")));
+		assertTrue(failed.isEmpty());
+
+		assertEquals(3, greenMail.getReceivedMessages().length);
+		// Both batches went over the one connection
+		assertEquals(1, CountingTransport.connects.get());
+	}
+
+	@Test
+	void evictsIdleConnections() throws Exception {
+		SmtpTransportPool shortLived = new SmtpTransportPool(mailSender, 1, 0, 0);
+		assertTrue(shortLived.sendAll(List.of(message("a@example.com"))).isEmpty());
+		Thread.sleep(5);
+		shortLived.evictIdle();
+
+		// A fresh connection is opened transparently after eviction
+		assertTrue(shortLived.sendAll(List.of(message("b@example.com"))).isEmpty());
+		assertEquals(2, greenMail.getReceivedMessages().length);
+		assertEquals(2, CountingTransport.connects.get());
+		shortLived.closeAll();
+	}
+
+	private MimeMessage message(String to) throws Exception {
+		MimeMessage message = mailSender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(message);
+		helper.setTo(to);
+		helper.setFrom("noreply@xchange.com");
+		helper.setSubject("Test");
+		helper.setText("Test body");
+		return message;
+	}
+}
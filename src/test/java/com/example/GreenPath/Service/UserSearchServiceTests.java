@@ -0,0 +1,52 @@
+package com.example.GreenPath.Service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.GreenPath.Repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchServiceTests {
+
+	@Mock
+	private UserRepository userRepository;
+
+	private UserSearchService searchService;
+
+	@BeforeEach
+	void setUp() {
+		searchService = new UserSearchService();
+		ReflectionTestUtils.setField(searchService, "userRepository", userRepository);
+	}
+
+	@Test
+	void typeaheadMatchesEveryWordAsPrefix() {
+		searchService.typeahead(" Jo  sm ", 10);
+
+		verify(userRepository).searchPrefix("jo:* & sm:*", 10);
+	}
+
+	@Test
+	void typeaheadDropsPunctuationAndCapsLimit() {
+		searchService.typeahead("o'brien!", 1000);
+
+		verify(userRepository).searchPrefix("o:* & brien:*", 100);
+	}
+
+	@Test
+	void typeaheadSkipsQueryWithoutWords() {
+		assertTrue(searchService.typeahead(" &|! ", 10).isEmpty());
+
+		verify(userRepository, never()).searchPrefix(anyString(), anyInt());
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.GreenPath.Service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.GreenPath.Model.User;
+import com.example.GreenPath.Model.UserType;
+import com.example.GreenPath.Repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTests {
+
+	@Mock
+	private UserRepository userRepository;
+
+	private userService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new userService();
+		ReflectionTestUtils.setField(service, "userRepository", userRepository);
+		when(userRepository.findById(1L)).thenReturn(Optional.of(User.builder().id(1L).userType(UserType.FARMER).build()));
+	}
+
+	@Test
+	void updateRejectsFarmOutOfRange() {
+		User update = User.builder().id(1L).userType(UserType.FARMER).farmLatitude(95.0).farmLongitude(10.0).build();
+
+		assertThrows(RuntimeException.class, () -> service.updateUser(update));
+		verify(userRepository, never()).save(any());
+	}
+
+	@Test
+	void updateRejectsHalfAGrazingLocation() {
+		User update = User.builder().id(1L).userType(UserType.HERDER).grazingLatitude(1.0).build();
+
+		assertThrows(RuntimeException.class, () -> service.updateUser(update));
+		verify(userRepository, never()).save(any());
+	}
+
+	@Test
+	void updateRejectsNegativeGrazingRadius() {
+		User update = User.builder().id(1L).userType(UserType.HERDER)
+				.grazingLatitude(1.0).grazingLongitude(36.0).grazingRadiusKm(-2.0).build();
+
+		assertThrows(RuntimeException.class, () -> service.updateUser(update));
+		verify(userRepository, never()).save(any());
+	}
+}
@@ -0,0 +1,315 @@
+package com.example.GreenPath.WebSocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedOutboundSessionTests {
+
+	private static final String POSITIONS = "/topic/herders/7/position";
+	private static final String ALERTS = "/topic/alerts";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final StubSession socket = new StubSession();
+	private OutboundQueueManager manager;
+
+	@AfterEach
+	void tearDown() {
+		socket.release();
+		manager.shutdown();
+	}
+
+	@Test
+	void conflatedDestinationKeepsOnlyLatestFrame() throws Exception {
+		WebSocketSession session = open(OutboundQueueManager.OverflowPolicy.DROP_OLDEST, 10_000);
+		blockSocket(session);
+
+		session.sendMessage(broadcast(POSITIONS, "sub-1", "p1"));
+		session.sendMessage(broadcast(POSITIONS, "sub-1", "p2"));
+		session.sendMessage(broadcast(POSITIONS, "sub-2", "q1"));
+		session.sendMessage(broadcast(POSITIONS, "sub-1", "p3"));
+		assertEquals(2, manager.getQueuedMessages());
+
+		socket.release();
+		assertEquals(List.of("p3", "q1"), socket.bodies(2));
+		assertEquals(2, dropped("conflated"));
+		assertQueueDrained();
+	}
+
+	@Test
+	void dropOldestEvictsQueuedBroadcast() throws Exception {
+		WebSocketSession session = open(OutboundQueueManager.OverflowPolicy.DROP_OLDEST, 10_000);
+		blockSocket(session);
+
+		for (int i = 1; i <= 4; i++) {
+			session.sendMessage(broadcast(ALERTS, "sub-1", "m" + i));
+		}
+
+		socket.release();
+		assertEquals(List.of("m2", "m3", "m4"), socket.bodies(3));
+		assertEquals(1, dropped("overflow"));
+		assertQueueDrained();
+	}
+
+	@Test
+	void dropNewestRejectsIncomingBroadcast() throws Exception {
+		WebSocketSession session = open(OutboundQueueManager.OverflowPolicy.DROP_NEWEST, 10_000);
+		blockSocket(session);
+
+		for (int i = 1; i <= 4; i++) {
+			session.sendMessage(broadcast(ALERTS, "sub-1", "m" + i));
+		}
+
+		socket.release();
+		assertEquals(List.of("m1", "m2", "m3"), socket.bodies(3));
+		assertEquals(1, dropped("overflow"));
+		assertQueueDrained();
+	}
+
+	@Test
+	void controlFramesAreNeverDropped() throws Exception {
+		WebSocketSession session = open(OutboundQueueManager.OverflowPolicy.DROP_NEWEST, 10_000);
+		blockSocket(session);
+
+		for (int i = 1; i <= 3; i++) {
+			session.sendMessage(broadcast(ALERTS, "sub-1", "m" + i));
+		}
+		session.sendMessage(control("r1"));
+		session.sendMessage(control("r2"));
+		assertEquals(5, manager.getQueuedMessages());
+
+		socket.release();
+		assertEquals(List.of("m1", "m2", "m3", "r1", "r2"), socket.bodies(5));
+		assertEquals(0, dropped("overflow"));
+		assertQueueDrained();
+	}
+
+	@Test
+	void sessionStuckInSendIsClosed() throws Exception {
+		WebSocketSession session = open(OutboundQueueManager.OverflowPolicy.DROP_OLDEST, 50);
+		blockSocket(session);
+		Thread.sleep(100);
+
+		session.sendMessage(broadcast(ALERTS, "sub-1", "late"));
+
+		assertEquals(CloseStatus.SESSION_NOT_RELIABLE, socket.closeStatus);
+		assertEquals(1.0, meterRegistry.get("greenpath.websocket.sessions.closed.slow").counter().count());
+		assertEquals(0, manager.getQueuedMessages());
+
+		// Nothing more is queued once the session is closed
+		socket.release();
+		session.sendMessage(broadcast(ALERTS, "sub-1", "after-close"));
+		assertNull(socket.sent.poll(200, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void failedSendDiscardsQueue() throws Exception {
+		WebSocketSession session = open(OutboundQueueManager.OverflowPolicy.DROP_OLDEST, 10_000);
+		socket.failSends = true;
+
+		session.sendMessage(control("r1"));
+		session.sendMessage(control("r2"));
+
+		assertTrue(waitFor(() -> meterRegistry.get("greenpath.websocket.outbound.send.failures").counter().count() == 1));
+		assertQueueDrained();
+	}
+
+	private WebSocketSession open(OutboundQueueManager.OverflowPolicy policy, long sendTimeLimitMs) {
+		manager = new OutboundQueueManager(meterRegistry, 3, policy, new String[] {"/topic/herders/*/position"},
+				sendTimeLimitMs);
+		return manager.wrap(socket);
+	}
+
+	// Occupy the sender with a frame the stub holds until release(), so later frames stay queued
+	private void blockSocket(WebSocketSession session) throws Exception {
+		socket.block();
+		session.sendMessage(control("gate"));
+		assertTrue(socket.entered.await(2, TimeUnit.SECONDS));
+		assertEquals("gate", body(socket.sent.poll(2, TimeUnit.SECONDS)));
+	}
+
+	private double dropped(String reason) {
+		return meterRegistry.get("greenpath.websocket.outbound.dropped").tag("reason", reason).counter().count();
+	}
+
+	private void assertQueueDrained() throws InterruptedException {
+		assertTrue(waitFor(() -> manager.getQueuedMessages() == 0));
+	}
+
+	private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline) {
+				return false;
+			}
+			Thread.sleep(5);
+		}
+		return true;
+	}
+
+	private static TextMessage broadcast(String destination, String subscription, String body) {
+		return new TextMessage("MESSAGE\ndestination:" + destination + "\nsubscription:" + subscription
+				+ "\n\n" + body + "\0");
+	}
+
+	private static TextMessage control(String receiptId) {
+		return new TextMessage("RECEIPT\nreceipt-id:" + receiptId + "\n\n" + receiptId + "\0");
+	}
+
+	private static String body(String payload) {
+		assertNotNull(payload);
+		return payload.substring(payload.indexOf("\n\n") + 2, payload.length() - 1);
+	}
+
+	// Records what reaches the socket; send() can be held to simulate a slow client
+	private static final class StubSession implements WebSocketSession {
+
+		final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+		final CountDownLatch entered = new CountDownLatch(1);
+		volatile CountDownLatch gate;
+		volatile boolean failSends;
+		volatile CloseStatus closeStatus;
+
+		void block() {
+			gate = new CountDownLatch(1);
+		}
+
+		void release() {
+			CountDownLatch current = gate;
+			if (current != null) {
+				current.countDown();
+			}
+		}
+
+		List<String> bodies(int count) throws InterruptedException {
+			List<String> bodies = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				bodies.add(body(sent.poll(2, TimeUnit.SECONDS)));
+			}
+			assertNull(sent.poll(100, TimeUnit.MILLISECONDS), "unexpected extra frame");
+			return bodies;
+		}
+
+		@Override
+		public void sendMessage(WebSocketMessage<?> message) throws IOException {
+			if (failSends) {
+				throw new IOException("broken pipe");
+			}
+			sent.add(((TextMessage) message).getPayload());
+			CountDownLatch current = gate;
+			if (current != null) {
+				entered.countDown();
+				try {
+					current.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				gate = null;
+			}
+		}
+
+		@Override
+		public String getId() {
+			return "stub";
+		}
+
+		@Override
+		public URI getUri() {
+			return null;
+		}
+
+		@Override
+		public HttpHeaders getHandshakeHeaders() {
+			return new HttpHeaders();
+		}
+
+		@Override
+		public Map<String, Object> getAttributes() {
+			return new HashMap<>();
+		}
+
+		@Override
+		public Principal getPrincipal() {
+			return null;
+		}
+
+		@Override
+		public InetSocketAddress getLocalAddress() {
+			return null;
+		}
+
+		@Override
+		public InetSocketAddress getRemoteAddress() {
+			return null;
+		}
+
+		@Override
+		public String getAcceptedProtocol() {
+			return null;
+		}
+
+		@Override
+		public void setTextMessageSizeLimit(int messageSizeLimit) {
+		}
+
+		@Override
+		public int getTextMessageSizeLimit() {
+			return 0;
+		}
+
+		@Override
+		public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+		}
+
+		@Override
+		public int getBinaryMessageSizeLimit() {
+			return 0;
+		}
+
+		@Override
+		public List<WebSocketExtension> getExtensions() {
+			return List.of();
+		}
+
+		@Override
+		public boolean isOpen() {
+			return closeStatus == null;
+		}
+
+		@Override
+		public void close() throws IOException {
+			close(CloseStatus.NORMAL);
+		}
+
+		@Override
+		public void close(CloseStatus status) throws IOException {
+			closeStatus = status;
+		}
+	}
+}